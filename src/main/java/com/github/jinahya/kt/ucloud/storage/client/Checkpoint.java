@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import java.util.Properties;
+
+/**
+ * A checkpoint of a resumable download; the {@code ETag} of the object and the
+ * number of bytes already written. A checkpoint is stored as a properties file
+ * next to the downloading file.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class Checkpoint {
+
+    private static final String KEY_ETAG = "etag";
+
+    private static final String KEY_OFFSET = "offset";
+
+    /**
+     * Returns the path of the checkpoint file of given file.
+     *
+     * @param path the file
+     * @return the path of the checkpoint file
+     */
+    static Path sidecar(final Path path) {
+        return path.resolveSibling(path.getFileName() + ".checkpoint");
+    }
+
+    /**
+     * Loads a checkpoint from given file.
+     *
+     * @param sidecar the checkpoint file
+     * @return the checkpoint or {@code null} if the file doesn't exist
+     * @throws IOException if an I/O error occurs
+     */
+    static Checkpoint load(final Path sidecar) throws IOException {
+        final Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(sidecar)) {
+            properties.load(input);
+        } catch (final NoSuchFileException nsfe) {
+            return null;
+        }
+        return new Checkpoint(
+                properties.getProperty(KEY_ETAG),
+                Long.parseLong(properties.getProperty(KEY_OFFSET, "0")));
+    }
+
+    // -------------------------------------------------------------------------
+    Checkpoint(final String etag, final long offset) {
+        super();
+        this.etag = etag;
+        this.offset = offset;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Stores this checkpoint into given file. The file is replaced atomically.
+     *
+     * @param sidecar the checkpoint file
+     * @throws IOException if an I/O error occurs
+     */
+    void store(final Path sidecar) throws IOException {
+        final Properties properties = new Properties();
+        if (etag != null) {
+            properties.setProperty(KEY_ETAG, etag);
+        }
+        properties.setProperty(KEY_OFFSET, Long.toString(offset));
+        final Path temp
+                = sidecar.resolveSibling(sidecar.getFileName() + ".tmp");
+        try (OutputStream output = Files.newOutputStream(temp)) {
+            properties.store(output, null);
+        }
+        Files.move(temp, sidecar, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    // -------------------------------------------------------------------------
+    final String etag;
+
+    final long offset;
+}
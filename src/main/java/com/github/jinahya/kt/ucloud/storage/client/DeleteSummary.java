@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+/**
+ * A summary of a bulk deletion.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @see StorageClient#deleteObjects(java.lang.String, java.lang.String, int,
+ * boolean)
+ */
+public class DeleteSummary {
+
+    DeleteSummary(final long deleted, final long missing,
+                  final boolean containerDeleted, final long elapsed) {
+        super();
+        this.deleted = deleted;
+        this.missing = missing;
+        this.containerDeleted = containerDeleted;
+        this.elapsed = elapsed;
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return super.toString() + "{"
+               + "deleted=" + deleted
+               + ", missing=" + missing
+               + ", containerDeleted=" + containerDeleted
+               + ", elapsed=" + elapsed
+               + "}";
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the number of objects deleted.
+     *
+     * @return the number of objects deleted
+     */
+    public long getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Returns the number of objects already gone, i.e. responded with
+     * {@code 404}, when they were being deleted.
+     *
+     * @return the number of missing objects
+     */
+    public long getMissing() {
+        return missing;
+    }
+
+    /**
+     * Returns whether the container has been deleted.
+     *
+     * @return {@code true} if the container has been deleted; {@code false}
+     * otherwise
+     */
+    public boolean isContainerDeleted() {
+        return containerDeleted;
+    }
+
+    /**
+     * Returns the elapsed time of the deletion in milliseconds.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    // -------------------------------------------------------------------------
+    private final long deleted;
+
+    private final long missing;
+
+    private final boolean containerDeleted;
+
+    private final long elapsed;
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+
+/**
+ * An input stream reads the gzip encoding of another input stream. The source
+ * is compressed as it is read so that nothing but a buffer is held.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+class GzipEncodingInputStream extends InputStream {
+
+    private static final byte[] HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    /**
+     * Creates a new instance.
+     *
+     * @param source the input stream to encode
+     */
+    GzipEncodingInputStream(final InputStream source) {
+        super();
+        deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        body = new DeflaterInputStream(new FilterInputStream(source) {
+            @Override
+            public int read(final byte[] b, final int off, final int len)
+                    throws IOException {
+                final int read = super.read(b, off, len);
+                if (read > 0) {
+                    crc.update(b, off, read);
+                    size += read;
+                }
+                return read;
+            }
+        }, deflater);
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len)
+            throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (headerIndex < HEADER.length) {
+            final int n = Math.min(len, HEADER.length - headerIndex);
+            System.arraycopy(HEADER, headerIndex, b, off, n);
+            headerIndex += n;
+            return n;
+        }
+        if (trailer == null) {
+            final int read = body.read(b, off, len);
+            if (read != -1) {
+                return read;
+            }
+            final long value = crc.getValue();
+            trailer = new byte[8];
+            for (int i = 0; i < 4; i++) {
+                trailer[i] = (byte) (value >> (i * 8));
+                trailer[i + 4] = (byte) (size >> (i * 8));
+            }
+        }
+        if (trailerIndex == trailer.length) {
+            return -1;
+        }
+        final int n = Math.min(len, trailer.length - trailerIndex);
+        System.arraycopy(trailer, trailerIndex, b, off, n);
+        trailerIndex += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            body.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    private final Deflater deflater;
+
+    private final InputStream body;
+
+    private final CRC32 crc = new CRC32();
+
+    private long size;
+
+    private int headerIndex;
+
+    private byte[] trailer;
+
+    private int trailerIndex;
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An append-only journal of uploaded segments. Each line is a record of a
+ * segment; the name, the size and the {@code ETag} separated by tabs.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class Journal implements Closeable {
+
+    /**
+     * A record of an uploaded segment.
+     */
+    static final class Record {
+
+        Record(final String name, final long size, final String etag) {
+            super();
+            this.name = name;
+            this.size = size;
+            this.etag = etag;
+        }
+
+        final String name;
+
+        final long size;
+
+        final String etag;
+    }
+
+    /**
+     * Reads records of given journal file. A malformed line, e.g. a partially
+     * written last line, is ignored.
+     *
+     * @param path the journal file
+     * @return a map of records keyed by their names; empty if the file doesn't
+     * exist
+     * @throws IOException if an I/O error occurs
+     */
+    static Map<String, Record> read(final Path path) throws IOException {
+        final Map<String, Record> records = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, UTF_8)) {
+            for (String line; (line = reader.readLine()) != null;) {
+                final String[] fields = line.split("\t");
+                if (fields.length != 3) {
+                    continue;
+                }
+                try {
+                    records.put(fields[0], new Record(
+                                fields[0], Long.parseLong(fields[1]),
+                                fields[2]));
+                } catch (final NumberFormatException nfe) {
+                    // ignored
+                }
+            }
+        } catch (final NoSuchFileException nsfe) {
+            // empty
+        }
+        return records;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Opens given journal file for appending records.
+     *
+     * @param path the journal file
+     * @throws IOException if an I/O error occurs
+     */
+    Journal(final Path path) throws IOException {
+        super();
+        channel = FileChannel.open(path, CREATE, WRITE, APPEND);
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Appends a record and forces it to the storage device.
+     *
+     * @param record the record
+     * @throws IOException if an I/O error occurs
+     */
+    synchronized void append(final Record record) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(
+                (record.name + "\t" + record.size + "\t" + record.etag + "\n")
+                .getBytes(UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // -------------------------------------------------------------------------
+    private final FileChannel channel;
+}
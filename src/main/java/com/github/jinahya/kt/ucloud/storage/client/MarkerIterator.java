@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.util.Collections.emptyIterator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Function;
+
+/**
+ * An iterator lazily reads entries page by page. Each page is read with the
+ * name of the last entry of the previous page as the marker and the iteration
+ * ends with a page shorter than the limit.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @param <E> entry type parameter
+ * @see MarkerPages
+ */
+class MarkerIterator<E> implements Iterator<E> {
+
+    /**
+     * Creates a new instance iterates entries of given pages.
+     *
+     * @param pages the pages
+     */
+    MarkerIterator(final Iterator<List<E>> pages) {
+        super();
+        this.pages = requireNonNull(pages, "null pages");
+    }
+
+    /**
+     * Creates a new instance iterates names.
+     *
+     * @param pager a function reads a page of names after given marker; the
+     * marker may be {@code null} for the first page
+     * @param limit the maximum number of names in a page
+     * @param marker an initial marker; may be {@code null}
+     * @return a new instance
+     */
+    static MarkerIterator<String> names(
+            final Function<String, List<String>> pager, final int limit,
+            final String marker) {
+        return new MarkerIterator<>(MarkerPages.names(pager, limit, marker));
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext()) {
+            if (!pages.hasNext()) {
+                return false;
+            }
+            page = pages.next().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    // -------------------------------------------------------------------------
+    private final Iterator<List<E>> pages;
+
+    private Iterator<E> page = emptyIterator();
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Function;
+
+/**
+ * An iterator lazily reads pages of entries. Each page is read with the name of
+ * the last entry of the previous page as the marker and the iteration ends with
+ * a page shorter than the limit.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @param <E> entry type parameter
+ */
+class MarkerPages<E> implements Iterator<List<E>> {
+
+    /**
+     * Creates a new instance for pages of names.
+     *
+     * @param pager a function reads a page of names after given marker; the
+     * marker may be {@code null} for the first page
+     * @param limit the maximum number of names in a page
+     * @param marker an initial marker; may be {@code null}
+     * @return a new instance
+     */
+    static MarkerPages<String> names(final Function<String, List<String>> pager,
+                                     final int limit, final String marker) {
+        return new MarkerPages<>(pager, Function.identity(), limit, marker);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param pager a function reads a page of entries after given marker; the
+     * marker may be {@code null} for the first page
+     * @param namer a function yields the name of an entry
+     * @param limit the maximum number of entries in a page
+     * @param marker an initial marker; may be {@code null}
+     */
+    MarkerPages(final Function<String, List<E>> pager,
+                final Function<E, String> namer, final int limit,
+                final String marker) {
+        super();
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit(" + limit + ") <= 0");
+        }
+        this.pager = requireNonNull(pager, "null pager");
+        this.namer = requireNonNull(namer, "null namer");
+        this.limit = limit;
+        this.marker = marker;
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public boolean hasNext() {
+        return !last;
+    }
+
+    @Override
+    public List<E> next() {
+        if (last) {
+            throw new NoSuchElementException();
+        }
+        final List<E> entries = pager.apply(marker);
+        last = entries.size() < limit;
+        if (!entries.isEmpty()) {
+            marker = namer.apply(entries.get(entries.size() - 1));
+        }
+        return entries;
+    }
+
+    // -------------------------------------------------------------------------
+    private final Function<String, List<E>> pager;
+
+    private final Function<E, String> namer;
+
+    private final int limit;
+
+    private String marker;
+
+    private boolean last;
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.lang.System.nanoTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of peeked metadata with time-to-live. A {@code null} value is cached
+ * for an absent, i.e. {@code 404}, resource. Each invalidation increments a
+ * generation so that a value peeked before an invalidation is not cached.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class MetadataCache {
+
+    /**
+     * The number of puts between sweeps of expired entries.
+     */
+    private static final int SWEEP_INTERVAL = 1024;
+
+    /**
+     * A cached value with its expiry.
+     */
+    static final class Entry {
+
+        private Entry(final Object value, final long expiry) {
+            super();
+            this.value = value;
+            this.expiry = expiry;
+        }
+
+        final Object value;
+
+        private final long expiry;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the entry of given key.
+     *
+     * @param key the key
+     * @return the entry or {@code null} if not cached or expired
+     */
+    Entry get(final String key) {
+        final Entry entry = entries.get(key);
+        if (entry == null || entry.expiry - nanoTime() <= 0L) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Returns current generation.
+     *
+     * @return current generation
+     */
+    long generation() {
+        return generation;
+    }
+
+    /**
+     * Puts a value unless any key has been invalidated since given generation.
+     *
+     * @param key the key
+     * @param value the value; may be {@code null}
+     * @param ttl the time-to-live in milliseconds
+     * @param generation the generation read before the value
+     */
+    synchronized void put(final String key, final Object value,
+                          final long ttl, final long generation) {
+        if (generation != this.generation) {
+            return;
+        }
+        final long now = nanoTime();
+        if (++puts % SWEEP_INTERVAL == 0) {
+            entries.values().removeIf(e -> e.expiry - now <= 0L);
+        }
+        entries.put(key, new Entry(value, now + ttl * 1000000L));
+    }
+
+    /**
+     * Invalidates entries of given keys.
+     *
+     * @param keys the keys
+     */
+    synchronized void invalidate(final String... keys) {
+        generation++;
+        for (final String key : keys) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile long generation;
+
+    private long puts;
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A size bounded cache of object bodies for conditional reads. Entries are
+ * evicted, in either access order or insertion order, while the total number
+ * of bytes of cached bodies exceeds the capacity.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class ObjectCache {
+
+    /**
+     * A cached body with its validators.
+     */
+    static final class Entry {
+
+        Entry(final String etag, final String lastModified,
+              final byte[] body) {
+            super();
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = requireNonNull(body, "null body");
+        }
+
+        final String etag;
+
+        final String lastModified;
+
+        final byte[] body;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the maximum number of bytes of cached bodies
+     * @param accessOrder {@code true} for evicting the least recently accessed
+     * entry first; {@code false} for evicting the eldest inserted entry first
+     */
+    ObjectCache(final long capacity, final boolean accessOrder) {
+        super();
+        if (capacity <= 0L) {
+            throw new IllegalArgumentException(
+                    "capacity(" + capacity + ") <= 0L");
+        }
+        this.capacity = capacity;
+        entries = new LinkedHashMap<>(16, .75f, accessOrder);
+    }
+
+    // -------------------------------------------------------------------------
+    synchronized Entry get(final String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Puts given entry. An entry larger than the capacity is not cached.
+     *
+     * @param key the key
+     * @param entry the entry
+     */
+    synchronized void put(final String key, final Entry entry) {
+        remove(key);
+        if (entry.body.length > capacity) {
+            return;
+        }
+        entries.put(key, entry);
+        size += entry.body.length;
+        for (final Iterator<Entry> i = entries.values().iterator();
+             size > capacity;) {
+            size -= i.next().body.length;
+            i.remove();
+        }
+    }
+
+    synchronized void remove(final String key) {
+        final Entry removed = entries.remove(key);
+        if (removed != null) {
+            size -= removed.body.length;
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    // -------------------------------------------------------------------------
+    private final long capacity;
+
+    private final Map<String, Entry> entries;
+
+    private long size;
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import static java.util.logging.Level.FINE;
+import java.util.logging.Logger;
+import static java.util.logging.Logger.getLogger;
+
+/**
+ * Utilities for running indexed tasks with a bounded parallelism.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class Parallel {
+
+    private static final Logger logger
+            = getLogger(lookup().lookupClass().getName());
+
+    /**
+     * The initial backoff, in milliseconds, of retries. The value is
+     * {@value #RETRY_BACKOFF}.
+     */
+    static final long RETRY_BACKOFF = 200L;
+
+    /**
+     * The maximum backoff, in milliseconds, of retries. The value is
+     * {@value #RETRY_BACKOFF_MAX}.
+     */
+    static final long RETRY_BACKOFF_MAX = 5000L;
+
+    /**
+     * Runs a task for each index in {@code [0, count)} with at most
+     * {@code parallelism} workers on given executor. Each worker takes the
+     * next index until all indices are taken or any task fails. This method
+     * blocks until all workers finish.
+     *
+     * @param executor the executor
+     * @param parallelism the maximum number of concurrent tasks
+     * @param count the number of indices
+     * @param task the task accepts an index
+     */
+    static void run(final Executor executor, final int parallelism,
+                    final int count, final IntConsumer task) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+                    "parallelism(" + parallelism + ") <= 0");
+        }
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final CompletableFuture<?>[] workers
+                = new CompletableFuture<?>[Math.min(parallelism, count)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> {
+                for (int index; !failed.get()
+                                && (index = next.getAndIncrement()) < count;) {
+                    try {
+                        task.accept(index);
+                    } catch (final RuntimeException re) {
+                        failed.set(true);
+                        throw re;
+                    }
+                }
+            }, executor);
+        }
+        join(workers);
+    }
+
+    /**
+     * Runs a task for each element of given iterator with at most
+     * {@code parallelism} workers on given executor. Each worker takes the
+     * next element, synchronizing on the iterator, until the iterator is
+     * exhausted or any task fails. This method blocks until all workers
+     * finish.
+     *
+     * @param <E> element type parameter
+     * @param executor the executor
+     * @param parallelism the maximum number of concurrent tasks
+     * @param iterator the iterator
+     * @param task the task accepts an element
+     */
+    static <E> void each(final Executor executor, final int parallelism,
+                         final Iterator<? extends E> iterator,
+                         final Consumer<? super E> task) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException(
+                    "parallelism(" + parallelism + ") <= 0");
+        }
+        final AtomicBoolean failed = new AtomicBoolean();
+        final CompletableFuture<?>[] workers
+                = new CompletableFuture<?>[parallelism];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    while (!failed.get()) {
+                        final E element;
+                        synchronized (iterator) {
+                            if (failed.get() || !iterator.hasNext()) {
+                                return;
+                            }
+                            element = iterator.next();
+                        }
+                        task.accept(element);
+                    }
+                } catch (final RuntimeException re) {
+                    failed.set(true);
+                    throw re;
+                }
+            }, executor);
+        }
+        join(workers);
+    }
+
+    /**
+     * Waits for given workers and rethrows the cause of any failure. The wait
+     * is {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)
+     * managed} so that a pool whose worker calls this method, e.g. a
+     * {@link TreeUpload}, compensates with a spare thread.
+     */
+    private static void join(final CompletableFuture<?>[] workers) {
+        final CompletableFuture<Void> all = CompletableFuture.allOf(workers);
+        try {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() {
+                    try {
+                        all.join();
+                    } catch (final CompletionException ce) {
+                        // rethrown below
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return all.isDone();
+                }
+            });
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new StorageClientException(ie);
+        }
+        try {
+            all.join();
+        } catch (final CompletionException ce) {
+            final Throwable cause = ce.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new StorageClientException(cause);
+        }
+    }
+
+    /**
+     * Gets a result from given supplier retrying on a
+     * {@link StorageClientException} at most {@code retries} times with a
+     * backoff starting from {@value #RETRY_BACKOFF} milliseconds.
+     *
+     * @param <R> result type parameter
+     * @param retries the maximum number of retries
+     * @param supplier the supplier
+     * @return the result
+     * @see #retry(int, long, java.util.function.Supplier)
+     */
+    static <R> R retry(final int retries, final Supplier<R> supplier) {
+        return retry(retries, RETRY_BACKOFF, supplier);
+    }
+
+    /**
+     * Gets a result from given supplier retrying on a
+     * {@link StorageClientException} at most {@code retries} times. Before
+     * the {@code n}th retry, this method sleeps for a random duration between
+     * the half and the whole of {@code backoff * 2^(n-1)} milliseconds, capped
+     * at {@value #RETRY_BACKOFF_MAX}, so that retries of many workers neither
+     * hammer the server nor synchronize.
+     *
+     * @param <R> result type parameter
+     * @param retries the maximum number of retries
+     * @param backoff the initial backoff in milliseconds
+     * @param supplier the supplier; invoked for each attempt
+     * @return the result
+     */
+    static <R> R retry(final int retries, final long backoff,
+                       final Supplier<R> supplier) {
+        for (int i = 0;; i++) {
+            try {
+                return supplier.get();
+            } catch (final StorageClientException sce) {
+                if (i >= retries) {
+                    throw sce;
+                }
+                logger.log(FINE, "retrying(" + (i + 1) + "/" + retries + ")",
+                           sce);
+                final long delay = Math.min(RETRY_BACKOFF_MAX,
+                                            backoff << Math.min(i, 20));
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(
+                            delay / 2L, delay + 1L));
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    sce.addSuppressed(ie);
+                    throw sce;
+                }
+            }
+        }
+    }
+
+    private Parallel() {
+        super();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * An iterator reads elements of another iterator ahead in the background. The
+ * elements are buffered in a bounded queue so that the producer, e.g. the
+ * network, and the consumer run concurrently. Close the iterator if it is not
+ * exhausted.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @param <E> element type parameter
+ */
+class PrefetchingIterator<E> implements Iterator<E>, AutoCloseable {
+
+    private static final Object END = new Object();
+
+    /**
+     * A terminal element carries what the reading failed with.
+     */
+    private static final class Failure {
+
+        private Failure(final Throwable cause) {
+            super();
+            this.cause = cause;
+        }
+
+        private final Throwable cause;
+    }
+
+    /**
+     * Creates a new instance and starts reading given iterator with specified
+     * executor.
+     *
+     * @param iterator the iterator to read ahead
+     * @param capacity the maximum number of elements to be read ahead
+     * @param executor the executor for reading the iterator
+     */
+    PrefetchingIterator(final Iterator<? extends E> iterator,
+                        final int capacity, final Executor executor) {
+        super();
+        requireNonNull(iterator, "null iterator");
+        queue = new ArrayBlockingQueue<>(capacity);
+        executor.execute(() -> {
+            Object last = END;
+            try {
+                while (!closed && iterator.hasNext()) {
+                    put(iterator.next());
+                }
+            } catch (final Throwable t) { // an Error and an interruption too
+                last = new Failure(t);
+            } finally {
+                // the consumer, unless closed, waits for this
+                boolean interrupted = Thread.interrupted();
+                while (true) {
+                    try {
+                        put(last);
+                        break;
+                    } catch (final InterruptedException ie) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    private void put(final Object element) throws InterruptedException {
+        while (!closed) {
+            if (queue.offer(element, 100L, MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (closed) {
+                return false;
+            }
+            try {
+                next = queue.take();
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new StorageClientException(ie);
+            }
+            if (next instanceof Failure) {
+                final Throwable cause = ((Failure) next).cause;
+                next = END;
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new StorageClientException(cause);
+            }
+        }
+        return next != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final E element = (E) next;
+        next = null;
+        return element;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Stops reading ahead and discards buffered elements.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    private final BlockingQueue<Object> queue;
+
+    private volatile boolean closed;
+
+    private Object next;
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A rate limiter spaces permits evenly. Each permit is reserved at the later
+ * of now and one interval after the previously reserved one and the caller
+ * sleeps until then.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class RateLimiter {
+
+    /**
+     * Creates a new instance.
+     *
+     * @param permitsPerSecond the number of permits per second; {@code 0} for
+     * unlimited
+     */
+    RateLimiter(final int permitsPerSecond) {
+        super();
+        if (permitsPerSecond < 0) {
+            throw new IllegalArgumentException(
+                    "permitsPerSecond(" + permitsPerSecond + ") < 0");
+        }
+        interval = permitsPerSecond == 0
+                   ? 0L : SECONDS.toNanos(1L) / permitsPerSecond;
+        next = nanoTime();
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Acquires a permit blocking if necessary.
+     */
+    void acquire() {
+        if (interval == 0L) {
+            return;
+        }
+        final long wait;
+        synchronized (this) {
+            final long now = nanoTime();
+            if (next - now < 0L) {
+                next = now;
+            }
+            wait = next - now;
+            next += interval;
+        }
+        if (wait > 0L) {
+            try {
+                NANOSECONDS.sleep(wait);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new StorageClientException(ie);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    private final long interval;
+
+    private long next;
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Replays requests failed with {@code 401}. A request is attempted in a scope
+ * in which {@link #check(int)} aborts the attempt with an unauthorized status
+ * code, before the response is handed to the caller. The request is then
+ * attempted once more, out of the scope, after re-authenticated; the second
+ * response is handed to the caller whatever its status code is.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class Replay {
+
+    /**
+     * Aborts an attempt to be replayed.
+     */
+    private static final class Unauthorized extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private Unauthorized() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Unauthorized UNAUTHORIZED = new Unauthorized();
+
+    private static final ThreadLocal<Boolean> SCOPE = new ThreadLocal<>();
+
+    /**
+     * Aborts the current attempt if given status code is {@code 401} and the
+     * current thread is in the scope of a first attempt.
+     *
+     * @param statusCode the status code of the response
+     */
+    static void check(final int statusCode) {
+        if (statusCode == 401 && Boolean.TRUE.equals(SCOPE.get())) {
+            throw UNAUTHORIZED;
+        }
+    }
+
+    /**
+     * Attempts given request and, if the attempt is aborted by
+     * {@link #check(int)}, attempts it once more after accepting the token,
+     * with which the aborted attempt was made, to given authenticator.
+     *
+     * @param <R> result type parameter
+     * @param request the request
+     * @param token a supplier for the current token
+     * @param authenticator a consumer re-authenticates unless the token
+     * accepted is already replaced
+     * @return the result of the last attempt
+     */
+    static <R> R replay(final Supplier<R> request,
+                        final Supplier<String> token,
+                        final Consumer<String> authenticator) {
+        final Boolean previous = SCOPE.get();
+        final String used = token.get();
+        SCOPE.set(Boolean.TRUE);
+        try {
+            return request.get();
+        } catch (final Unauthorized u) {
+            // falls through
+        } finally {
+            restore(previous);
+        }
+        authenticator.accept(used);
+        SCOPE.set(Boolean.FALSE);
+        try {
+            return request.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(final Boolean previous) {
+        if (previous == null) {
+            SCOPE.remove();
+        } else {
+            SCOPE.set(previous);
+        }
+    }
+
+    private Replay() {
+        super();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.Date;
+
+/**
+ * An immutable snapshot of the authentication information of a client. A
+ * client publishes a new snapshot as a whole, with a single volatile write,
+ * so that a storage URL and a token read from the same snapshot always belong
+ * together.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @see StorageClient#getSession()
+ */
+public class Session {
+
+    /**
+     * A session of no authentication information.
+     */
+    static final Session EMPTY = new Session(null, null, null, -1L);
+
+    Session(final String storageUrl, final String accountUrl,
+            final String authToken, final long authTokenExpires) {
+        super();
+        this.storageUrl = storageUrl;
+        this.accountUrl = accountUrl;
+        this.authToken = authToken;
+        this.authTokenExpires = authTokenExpires;
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return super.toString() + "{"
+               + "storageUrl=" + storageUrl
+               + ", accountUrl=" + accountUrl
+               + ", authTokenExpires=" + getAuthTokenExpires()
+               + "}";
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Checks if this session is valid until given milliseconds.
+     *
+     * @param until the milliseconds
+     * @return {@code true} if this session is valid until given milliseconds;
+     * {@code false} otherwise
+     */
+    public boolean isValid(final long until) {
+        return storageUrl != null && authToken != null
+               && authTokenExpires >= 0L && authTokenExpires >= until;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the storage URL.
+     *
+     * @return the storage URL; {@code null} if not authenticated
+     */
+    public String getStorageUrl() {
+        return storageUrl;
+    }
+
+    /**
+     * Returns the account URL.
+     *
+     * @return the account URL; {@code null} if not authenticated or no account
+     * name is specified
+     */
+    public String getAccountUrl() {
+        return accountUrl;
+    }
+
+    /**
+     * Returns the authorization token.
+     *
+     * @return the authorization token; {@code null} if not authenticated
+     */
+    public String getAuthToken() {
+        return authToken;
+    }
+
+    /**
+     * Returns the date the authorization token expires.
+     *
+     * @return the date the authorization token expires; {@code null} if
+     * unknown
+     */
+    public Date getAuthTokenExpires() {
+        return authTokenExpires < 0L ? null : new Date(authTokenExpires);
+    }
+
+    /**
+     * Returns the time, in milliseconds, the authorization token expires.
+     *
+     * @return the time the authorization token expires; {@code -1L} if unknown
+     */
+    long getAuthTokenExpiresMillis() {
+        return authTokenExpires;
+    }
+
+    // -------------------------------------------------------------------------
+    private final String storageUrl;
+
+    private final String accountUrl;
+
+    private final String authToken;
+
+    private final long authTokenExpires;
+}
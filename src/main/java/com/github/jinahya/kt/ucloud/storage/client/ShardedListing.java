@@ -0,0 +1,263 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * A task lists names under a prefix with a delimiter, page by page, and forks
+ * a sub task for each sub directory listed. A range of which a page is full
+ * is split, between the last name listed and the end of the range, and the
+ * upper half is forked so that a flat namespace is also listed in parallel.
+ * Names of a sub directory or of a split range are placed at their position
+ * so that the result is in the listing order. When a consumer is specified,
+ * names are accepted to it, possibly concurrently, as soon as listed and the
+ * result is empty.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+class ShardedListing extends RecursiveTask<List<String>> {
+
+    /**
+     * A function lists a page of names.
+     */
+    @FunctionalInterface
+    interface Lister {
+
+        /**
+         * Lists a page of names under given prefix, with the delimiter, after
+         * specified marker and before specified end marker.
+         *
+         * @param prefix the prefix
+         * @param marker the exclusive lower bound; may be {@code null}
+         * @param endMarker the exclusive upper bound; may be {@code null}
+         * @return a page of names in the listing order
+         */
+        List<String> list(String prefix, String marker, String endMarker);
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The largest code point plus one.
+     */
+    private static final int CODE_POINT_LIMIT = Character.MAX_CODE_POINT + 1;
+
+    /**
+     * Returns a string between given bounds, in the order of code points which
+     * is the order of {@code UTF-8} bytes a server sorts names in. A string is
+     * made of a character halfway, or of a {@code US-ASCII} one for an
+     * unbounded range, at the first position the bounds differ.
+     *
+     * @param lower the lower bound
+     * @param upper the upper bound; {@code null} for no bound
+     * @return a string greater than {@code lower} and less than
+     * {@code upper}, or {@code null} if none is found
+     */
+    static String middle(final String lower, final String upper) {
+        final int[] l = lower.codePoints().toArray();
+        final int[] u = upper == null ? null : upper.codePoints().toArray();
+        final StringBuilder builder = new StringBuilder();
+        int i = 0;
+        while (u != null && i < l.length && i < u.length && l[i] == u[i]) {
+            builder.appendCodePoint(l[i++]);
+        }
+        if (u != null && i == u.length) {
+            return null; // upper <= lower
+        }
+        final int lc = i < l.length ? l[i] : -1;
+        final int uc = u != null ? u[i] : lc < 0x7F ? 0x7F : CODE_POINT_LIMIT;
+        if (uc < lc) {
+            return null;
+        }
+        if (uc - lc == 1) {
+            if (lc == -1) {
+                return null; // no name has a NUL
+            }
+            final String rest = middle(
+                    new String(l, i + 1, l.length - i - 1), null);
+            return rest == null
+                   ? null : builder.appendCodePoint(lc).append(rest)
+                           .toString();
+        }
+        int mc = Math.max(1, (lc + uc) >>> 1);
+        if (mc >= Character.MIN_SURROGATE && mc <= Character.MAX_SURROGATE) {
+            mc = Character.MAX_SURROGATE + 1 < uc
+                 ? Character.MAX_SURROGATE + 1 : Character.MIN_SURROGATE - 1;
+        }
+        if (mc <= lc || mc >= uc) {
+            return null;
+        }
+        return builder.appendCodePoint(mc).toString();
+    }
+
+    private static int compare(final String s1, final String s2) {
+        final int[] c1 = s1.codePoints().toArray();
+        final int[] c2 = s2.codePoints().toArray();
+        for (int i = 0; i < c1.length && i < c2.length; i++) {
+            if (c1[i] != c2[i]) {
+                return Integer.compare(c1[i], c2[i]);
+            }
+        }
+        return Integer.compare(c1.length, c2.length);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param lister a function lists a page of names
+     * @param limit the number of names of a full page
+     * @param delimiter the delimiter
+     * @param prefix the prefix
+     * @param consumer a consumer for unordered names; may be {@code null}
+     */
+    ShardedListing(final Lister lister, final int limit,
+                   final String delimiter, final String prefix,
+                   final Consumer<String> consumer) {
+        this(lister, limit, delimiter, prefix, null, null, consumer);
+    }
+
+    private ShardedListing(final Lister lister, final int limit,
+                           final String delimiter, final String prefix,
+                           final String marker, final String last,
+                           final Consumer<String> consumer) {
+        super();
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit(" + limit + ") <= 0");
+        }
+        this.lister = requireNonNull(lister, "null lister");
+        this.limit = limit;
+        this.delimiter = requireNonNull(delimiter, "null delimiter");
+        this.prefix = requireNonNull(prefix, "null prefix");
+        this.marker = marker;
+        this.last = last;
+        this.consumer = consumer;
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    protected List<String> compute() {
+        final List<Object> slots = new ArrayList<>();
+        final Deque<ShardedListing> splits = new ArrayDeque<>();
+        String marker = this.marker;
+        String last = this.last;
+        String previous = null;
+        while (true) {
+            // names <= last; no name has a character less than U+0001
+            final List<String> page = lister.list(
+                    prefix, marker, last == null ? null : last + '\u0001');
+            for (final String name : page) {
+                if (name.equals(previous)) {
+                    continue; // an object named as same as a sub directory
+                }
+                previous = name;
+                if (name.endsWith(delimiter) && !name.equals(prefix)) {
+                    final ShardedListing task = new ShardedListing(
+                            lister, limit, delimiter, name, consumer);
+                    task.fork();
+                    slots.add(task);
+                    continue;
+                }
+                if (consumer != null) {
+                    consumer.accept(name);
+                    continue;
+                }
+                slots.add(name);
+            }
+            if (page.size() < limit) {
+                break;
+            }
+            marker = page.get(page.size() - 1);
+            final String split = split(marker, last);
+            if (split != null) {
+                final ShardedListing task = new ShardedListing(
+                        lister, limit, delimiter, prefix, split, last,
+                        consumer);
+                task.fork();
+                splits.push(task);
+                last = split;
+            }
+        }
+        final List<String> names = new ArrayList<>();
+        for (final Object slot : slots) {
+            if (slot instanceof ShardedListing) {
+                names.addAll(((ShardedListing) slot).join());
+            } else {
+                names.add((String) slot);
+            }
+        }
+        for (final ShardedListing split : splits) {
+            names.addAll(split.join());
+        }
+        return names;
+    }
+
+    /**
+     * Returns a name splits the range between given bounds. The name is
+     * truncated before the delimiter so that a sub directory is never split.
+     *
+     * @param lower the last name listed
+     * @param upper the inclusive upper bound; {@code null} for no bound
+     * @return a name between the bounds or {@code null}
+     */
+    private String split(final String lower, final String upper) {
+        if (!lower.startsWith(prefix)) {
+            return null;
+        }
+        String middle = middle(
+                lower.substring(prefix.length()),
+                upper == null ? null : upper.substring(prefix.length()));
+        if (middle == null) {
+            return null;
+        }
+        final int i = middle.indexOf(delimiter);
+        if (i != -1) {
+            middle = middle.substring(0, i);
+        }
+        middle = prefix + middle;
+        if (compare(lower, middle) >= 0) {
+            return null;
+        }
+        return middle;
+    }
+
+    // -------------------------------------------------------------------------
+    private final transient Lister lister;
+
+    private final int limit;
+
+    private final String delimiter;
+
+    private final String prefix;
+
+    /**
+     * The exclusive lower bound; {@code null} for no bound.
+     */
+    private final String marker;
+
+    /**
+     * The inclusive upper bound; {@code null} for no bound.
+     */
+    private final String last;
+
+    private final transient Consumer<String> consumer;
+}
@@ -15,33 +15,85 @@
  */
 package com.github.jinahya.kt.ucloud.storage.client;
 
+import com.github.jinahya.kt.ucloud.storage.client.bind.ContainerInfo;
+import com.github.jinahya.kt.ucloud.storage.client.bind.ObjectInfo;
+import com.github.jinahya.kt.ucloud.storage.client.bind.StorageInfo;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import static java.lang.Long.parseLong;
 import static java.lang.System.currentTimeMillis;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import static java.util.Arrays.stream;
 import static java.util.Collections.singletonList;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import static java.util.Objects.requireNonNull;
 import static java.util.Optional.ofNullable;
+import static java.util.Spliterator.NONNULL;
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import static java.util.logging.Level.WARNING;
 import java.util.logging.Logger;
 import static java.util.logging.Logger.getLogger;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 /**
  *
@@ -50,7 +102,8 @@ import java.util.stream.Stream;
  * @param <RequestType> request type parameter
  * @param <ResponseType> response type parameter
  */
-public abstract class StorageClient<T extends StorageClient<T, RequestType, ResponseType>, RequestType, ResponseType> {
+public abstract class StorageClient<T extends StorageClient<T, RequestType, ResponseType>, RequestType, ResponseType>
+        implements AutoCloseable {
 
     private static final Logger logger
             = getLogger(StorageClient.class.getName());
@@ -88,12 +141,124 @@ public abstract class StorageClient<T extends StorageClient<T, RequestType, Resp
      */
     public static final String QUERY_PARAM_MARKER = "marker";
 
+    /**
+     * A constant for a query parameter whose value is
+     * {@value #QUERY_PARAM_END_MARKER}.
+     */
+    public static final String QUERY_PARAM_END_MARKER = "end_marker";
+
+    /**
+     * A constant for a query parameter whose value is
+     * {@value #QUERY_PARAM_PREFIX}.
+     */
+    public static final String QUERY_PARAM_PREFIX = "prefix";
+
+    /**
+     * A constant for a query parameter whose value is
+     * {@value #QUERY_PARAM_DELIMITER}.
+     */
+    public static final String QUERY_PARAM_DELIMITER = "delimiter";
+
     /**
      * A constant for a query parameter whose value is
      * {@value #QUERY_PARAM_FORMAT}.
      */
     public static final String QUERY_PARAM_FORMAT = "format";
 
+    /**
+     * The default value for {@link #QUERY_PARAM_LIMIT} when listing names.
+     * The value is {@value #LIST_LIMIT}.
+     */
+    public static final int LIST_LIMIT = 512;
+
+    /**
+     * The default value for the size of each segment of segmented uploads. The
+     * value is {@value #SEGMENT_SIZE}.
+     */
+    public static final long SEGMENT_SIZE = 134217728L;
+
+    /**
+     * The default value for the size of each part of ranged downloads. The
+     * value is {@value #PART_SIZE}.
+     */
+    public static final long PART_SIZE = 33554432L;
+
+    /**
+     * The default value for the maximum number of concurrent requests of a
+     * parallel transfer. The value is {@value #TRANSFER_PARALLELISM}.
+     */
+    public static final int TRANSFER_PARALLELISM = 4;
+
+    /**
+     * The default value for the maximum number of retries for each part of a
+     * parallel transfer. The value is {@value #TRANSFER_RETRIES}.
+     */
+    public static final int TRANSFER_RETRIES = 2;
+
+    /**
+     * The number of bytes between checkpoints of resumable downloads. The
+     * value is {@value #CHECKPOINT_INTERVAL}.
+     */
+    public static final long CHECKPOINT_INTERVAL = 8388608L;
+
+    /**
+     * The number of milliseconds to wait before retrying a failed token
+     * refresh. The value is {@value #TOKEN_REFRESH_RETRY}.
+     */
+    public static final long TOKEN_REFRESH_RETRY = 5000L;
+
+    /**
+     * The maximum number of remaining bytes of a response body drained for
+     * reusing the connection. A connection with more remaining is closed
+     * instead. The value is {@value #DRAIN_LIMIT}.
+     */
+    public static final int DRAIN_LIMIT = 65536;
+
+    private static final String TOKEN_AUTH_URL = "authUrl";
+
+    private static final String TOKEN_AUTH_USER = "authUser";
+
+    private static final String TOKEN_STORAGE_URL = "storageUrl";
+
+    private static final String TOKEN_AUTH_TOKEN = "authToken";
+
+    private static final String TOKEN_AUTH_TOKEN_EXPIRES = "authTokenExpires";
+
+    /**
+     * The default executor shared by all clients. Requests block, so they are
+     * not run on {@link ForkJoinPool#commonPool()}; threads of this executor
+     * are daemons, created as needed, and terminated after idling for a
+     * minute.
+     */
+    private static final Executor EXECUTOR;
+
+    static {
+        final AtomicLong threads = new AtomicLong();
+        EXECUTOR = new ThreadPoolExecutor(
+                0, Integer.MAX_VALUE, 60L, SECONDS, new SynchronousQueue<>(),
+                r -> {
+                    final Thread thread = new Thread(
+                            r, "storage-client-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static final String[] UNCACHEABLE_HEADERS = {
+        "Range", "If-Match", "If-None-Match", "If-Modified-Since",
+        "If-Unmodified-Since"};
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final XMLInputFactory XML_INPUT_FACTORY;
+
+    static {
+        XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(
+                XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
 //    public static final String HEADER_X_AUTH_USER = "X-Storage-User";
     /**
      * A constant for a header whose value is {@value #HEADER_X_AUTH_USER}.
@@ -160,6 +325,35 @@ public abstract class StorageClient<T extends StorageClient<T, RequestType, Resp
 
     public static final String HEADER_X_COPY_FROM = "X-Copy-From";
 
+    /**
+     * A constant for a header name whose value is
+     * {@value #HEADER_X_OBJECT_MANIFEST}.
+     */
+    public static final String HEADER_X_OBJECT_MANIFEST = "X-Object-Manifest";
+
+    /**
+     * A constant for a header name whose value is {@value #HEADER_ETAG}.
+     */
+    public static final String HEADER_ETAG = "ETag";
+
+    /**
+     * A constant for a header name whose value is
+     * {@value #HEADER_CONTENT_ENCODING}.
+     */
+    public static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+
+    /**
+     * A constant for the content coding whose value is
+     * {@value #ENCODING_GZIP}.
+     */
+    public static final String ENCODING_GZIP = "gzip";
+
+    /**
+     * A constant for the content coding whose value is
+     * {@value #ENCODING_IDENTITY}.
+     */
+    public static final String ENCODING_IDENTITY = "identity";
+
     /**
      * A constant for a header name whose value is
      * {@value #HEADER_X_AUTH_ADMIN_USER}.
@@ -233,6 +427,80 @@ public abstract class StorageClient<T extends StorageClient<T, RequestType, Resp
         return metaHeader(remove, "Object", tokens);
     }
 
+    /**
+     * Percent-encodes given value, in {@code UTF-8}, for a query parameter or
+     * a path segment. Unlike {@link URLEncoder}, a space is encoded as
+     * {@code %20}.
+     *
+     * @param value the value to encode
+     * @return an encoded value
+     */
+    public static String encode(final String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+        } catch (final UnsupportedEncodingException uee) {
+            throw new StorageClientException(uee);
+        }
+    }
+
+    /**
+     * Reads and discards at most {@value #DRAIN_LIMIT} remaining bytes of given
+     * stream. The stream is not closed.
+     *
+     * @param stream the stream; may be {@code null}
+     * @return {@code true} if the end of the stream has been reached;
+     * {@code false} if more than {@value #DRAIN_LIMIT} bytes remain
+     * @throws IOException if an I/O error occurs.
+     */
+    public static boolean drain(final InputStream stream) throws IOException {
+        if (stream == null) {
+            return true;
+        }
+        final byte[] buffer = new byte[8192];
+        for (long drained = 0L; drained <= DRAIN_LIMIT;) {
+            final int r = stream.read(buffer);
+            if (r == -1) {
+                return true;
+            }
+            drained += r;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a value of {@value #HEADER_X_COPY_FROM} for given object. Each
+     * segment of the path, those of the object name delimited by {@code /}
+     * included, is {@link #encode(java.lang.String) encoded}.
+     *
+     * @param containerName the container name of the source object
+     * @param objectName the name of the source object
+     * @return a header value
+     */
+    public static String copySource(final String containerName,
+                                    final String objectName) {
+        final StringBuilder builder
+                = new StringBuilder("/").append(encode(containerName));
+        for (final String segment : objectName.split("/", -1)) {
+            builder.append('/').append(encode(segment));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns a value of {@value #HEADER_X_OBJECT_MANIFEST} for segments of
+     * given prefix. Each segment of the path, those of the prefix delimited by
+     * {@code /} included, is {@link #encode(java.lang.String) encoded}.
+     *
+     * @param containerName the container name of the segments
+     * @param prefix the common prefix of the names of the segments
+     * @return a header value
+     * @see #copySource(java.lang.String, java.lang.String)
+     */
+    public static String objectManifest(final String containerName,
+                                        final String prefix) {
+        return copySource(containerName, prefix).substring(1);
+    }
+
     /**
      * Creates a URL for an account from given storage URL and account name.
      *
@@ -299,6 +567,357 @@ public abstract class StorageClient<T extends StorageClient<T, RequestType, Resp
         return lines(new InputStreamReader(stream, charset), consumer, client);
     }
 
+    /**
+     * Reads all lines of given reader and closes it.
+     *
+     * @param reader the reader
+     * @return a list of lines
+     */
+    static List<String> lines(final Reader reader) {
+        try (BufferedReader buffered = new BufferedReader(reader)) {
+            return buffered.lines().collect(toList());
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+    }
+
+    /**
+     * Parses an object listing, read with {@code format=xml}, from given stream
+     * and accepts each entry to specified consumer. The stream is pulled with
+     * StAX so that no document is built. Each {@code subdir} entry, listed when
+     * a {@code delimiter} is specified, is accepted as an instance with only
+     * the name.
+     *
+     * @param stream the stream
+     * @param consumer the consumer
+     */
+    public static void objectInfos(final InputStream stream,
+                                   final Consumer<ObjectInfo> consumer) {
+        try {
+            final XMLStreamReader reader
+                    = XML_INPUT_FACTORY.createXMLStreamReader(stream);
+            try {
+                ObjectInfo info = null;
+                while (reader.hasNext()) {
+                    final int event = reader.next();
+                    if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (info != null
+                            && ("object".equals(reader.getLocalName())
+                                || "subdir".equals(reader.getLocalName()))) {
+                            consumer.accept(info);
+                            info = null;
+                        }
+                        continue;
+                    }
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    final String name = reader.getLocalName();
+                    if ("object".equals(name)) {
+                        info = new ObjectInfo();
+                        continue;
+                    }
+                    if ("subdir".equals(name)) {
+                        info = new ObjectInfo().name(
+                                reader.getAttributeValue(null, "name"));
+                        continue;
+                    }
+                    if (info == null) {
+                        continue;
+                    }
+                    switch (name) {
+                        case "name":
+                            info.setName(reader.getElementText());
+                            break;
+                        case "bytes":
+                            info.setBytes(
+                                    Long.parseLong(reader.getElementText()));
+                            break;
+                        case "hash":
+                            info.setHash(reader.getElementText());
+                            break;
+                        case "content_type":
+                            info.setContentType(reader.getElementText());
+                            break;
+                        case "last_modified":
+                            info.setLastModified(reader.getElementText());
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException xmlse) {
+            throw new StorageClientException(xmlse);
+        }
+    }
+
+    static List<ObjectInfo> objectInfos(final InputStream stream) {
+        final List<ObjectInfo> infos = new ArrayList<>();
+        try (InputStream closing = stream) {
+            objectInfos(closing, infos::add);
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+        return infos;
+    }
+
+    /**
+     * Transfers a region of given file channel to specified output stream.
+     * The region is transferred with {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)} which doesn't change the position
+     * of the channel.
+     *
+     * @param channel the channel
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @param output the output stream
+     * @throws IOException if an I/O error occurs
+     */
+    public static void transfer(final FileChannel channel, final long position,
+                                final long count, final OutputStream output)
+            throws IOException {
+        final WritableByteChannel target = Channels.newChannel(output);
+        for (long p = position, r = count; r > 0L;) {
+            final long transferred = channel.transferTo(p, r, target);
+            if (transferred <= 0L) {
+                throw new EOFException(
+                        "unexpected end of channel; position: " + p);
+            }
+            p += transferred;
+            r -= transferred;
+        }
+        output.flush();
+    }
+
+    /**
+     * Returns an output stream updates given digest with bytes written to
+     * specified output stream.
+     *
+     * @param output the output stream
+     * @param digest the digest; may be {@code null}
+     * @return a digesting output stream or {@code output} if {@code digest} is
+     * {@code null}
+     */
+    public static OutputStream digested(final OutputStream output,
+                                        final MessageDigest digest) {
+        return digest == null ? output : new DigestOutputStream(output, digest);
+    }
+
+    /**
+     * Returns an input stream reads the gzip encoding of given input stream.
+     * The input stream is compressed as it is read.
+     *
+     * @param input the input stream
+     * @return a gzip encoding input stream
+     */
+    public static InputStream gzipped(final InputStream input) {
+        return new GzipEncodingInputStream(input);
+    }
+
+    /**
+     * Returns an input stream reads a region of given file channel with
+     * positional reads. Closing the stream doesn't close the channel.
+     *
+     * @param channel the channel
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @return an input stream of the region
+     */
+    public static InputStream newInputStream(final FileChannel channel,
+                                             final long position,
+                                             final long count) {
+        requireNonNull(channel, "null channel");
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                final byte[] b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len)
+                    throws IOException {
+                if (remaining <= 0L) {
+                    return -1;
+                }
+                final ByteBuffer buffer = ByteBuffer.wrap(
+                        b, off, (int) Math.min(len, remaining));
+                final int read = channel.read(buffer, next);
+                if (read == -1) {
+                    throw new EOFException(
+                            "unexpected end of channel; position: " + next);
+                }
+                next += read;
+                remaining -= read;
+                return read;
+            }
+
+            @Override
+            public int available() throws IOException {
+                return (int) Math.min(remaining, Integer.MAX_VALUE);
+            }
+
+            private long next = position;
+
+            private long remaining = count;
+        };
+    }
+
+    /**
+     * Writes all bytes of given input stream into specified channel starting at
+     * given position. The position of the channel is not changed.
+     *
+     * @param input the input stream
+     * @param channel the channel
+     * @param position the starting position
+     * @return the number of bytes written
+     * @throws IOException if an I/O error occurs
+     */
+    static long write(final InputStream input, final FileChannel channel,
+                      final long position)
+            throws IOException {
+        final byte[] array = new byte[65536];
+        final ByteBuffer buffer = ByteBuffer.wrap(array);
+        long written = 0L;
+        for (int read; (read = input.read(array)) != -1;) {
+            buffer.clear().limit(read);
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer, position + written);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Computes an MD5 hex of a region of given channel.
+     *
+     * @param channel the channel
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @return an MD5 hex in lower case
+     * @throws IOException if an I/O error occurs
+     */
+    public static String md5(final FileChannel channel, final long position,
+                             final long count)
+            throws IOException {
+        final MessageDigest digest = md5();
+        final ByteBuffer buffer = ByteBuffer.allocate(65536);
+        for (long p = position, r = count; r > 0L;) {
+            buffer.clear();
+            if (r < buffer.capacity()) {
+                buffer.limit((int) r);
+            }
+            final int read = channel.read(buffer, p);
+            if (read == -1) {
+                throw new EOFException(
+                        "unexpected end of channel; position: " + p);
+            }
+            buffer.flip();
+            digest.update(buffer);
+            p += read;
+            r -= read;
+        }
+        return hex(digest.digest());
+    }
+
+    static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException nsae) {
+            throw new StorageClientException(nsae);
+        }
+    }
+
+    static String hex(final byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    static String segmentPrefix(final String objectName,
+                                final long lastModified, final long size,
+                                final long segmentSize) {
+        return objectName + "/" + lastModified + "/" + size + "/" + segmentSize
+               + "/";
+    }
+
+    static String segmentName(final String prefix, final int index) {
+        return prefix + String.format("%08d", index);
+    }
+
+    static int segmentCount(final long size, final long segmentSize) {
+        final long count = (size + segmentSize - 1L) / segmentSize;
+        if (count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "too many segments; " + count);
+        }
+        return (int) count;
+    }
+
+    static <E> Stream<E> iterated(final Iterator<E> iterator) {
+        return StreamSupport.stream(
+                spliteratorUnknownSize(iterator, ORDERED | NONNULL), false);
+    }
+
+    private static <R> Function<R, Reader> stoppable(
+            final Function<R, Reader> function) {
+        return r -> {
+            try {
+                return function.apply(r);
+            } catch (final StorageClientException sce) {
+                return new StringReader("");
+            }
+        };
+    }
+
+    static Map<String, List<Object>> listHeaders(
+            final Map<String, List<Object>> headers) {
+        return listHeaders(headers, "text/plain");
+    }
+
+    static Map<String, List<Object>> listHeaders(
+            final Map<String, List<Object>> headers, final String accept) {
+        final Map<String, List<Object>> copy = headers == null
+                                               ? new HashMap<>()
+                                               : new HashMap<>(headers);
+        for (final Iterator<String> i = copy.keySet().iterator();
+             i.hasNext();) {
+            if ("accept".equalsIgnoreCase(i.next())) {
+                i.remove();
+            }
+        }
+        copy.put("Accept", singletonList(accept));
+        return copy;
+    }
+
+    static int listLimit(final Map<String, List<Object>> params) {
+        return Integer.parseInt(
+                params.get(QUERY_PARAM_LIMIT).get(0).toString());
+    }
+
+    static String listMarker(final Map<String, List<Object>> params) {
+        try {
+            return params.get(QUERY_PARAM_MARKER).get(0).toString();
+        } catch (NullPointerException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    static Map<String, List<Object>> marked(
+            final Map<String, List<Object>> params, final String marker) {
+        final Map<String, List<Object>> copy = new HashMap<>(params);
+        if (marker != null) {
+            copy.put(QUERY_PARAM_MARKER, singletonList(marker));
+        }
+        return copy;
+    }
+
     // -------------------------------------------------------------------------
     /**
      * Creates a new instance.
@@ -327,660 +946,3201 @@ public abstract class StorageClient<T extends StorageClient<T, RequestType, Resp
      */
     public abstract int getStatusCode(ResponseType response);
 
-    // -------------------------------------------------------------------------
     /**
-     * Authenticates user.
+     * Returns a function checks the status code of a response.
      *
-     * @param <R> result type parameter
-     * @param newToken a flag for refreshing the token.
-     * @param function a function results the result
-     * @return the value the function results
+     * @param message a message for the exception
+     * @param statusCodes expected status codes
+     * @return a function results the status code or throws a
+     * {@link StorageClientException} if the status code is not expected
      */
-    public abstract <R> R authenticateUser(boolean newToken,
-                                           Function<ResponseType, R> function);
+    protected Function<ResponseType, Integer> expect(
+            final String message, final int... statusCodes) {
+        return r -> {
+            final int statusCode = getStatusCode(r);
+            for (final int expected : statusCodes) {
+                if (statusCode == expected) {
+                    return statusCode;
+                }
+            }
+            throw new StorageClientException(message + "; " + statusCode);
+        };
+    }
 
     /**
-     * Authenticates user and returns the status code.
+     * Returns a new digest for verifying an upload with given request headers.
      *
-     * @param newToken a flag for refreshing the token.
-     * @return status code of user authentication
+     * @param headers the request headers; may be {@code null}
+     * @return a new MD5 digest; {@code null} if the
+     * {@link #isUploadVerification() uploadVerification} is off or
+     * {@code headers} already has an {@value #HEADER_ETAG}
      */
-    public int authenticateUser(final boolean newToken) {
-        return authenticateUser(newToken, this::getStatusCode);
+    protected MessageDigest uploadDigest(
+            final Map<String, List<Object>> headers) {
+        if (!isUploadVerification()) {
+            return null;
+        }
+        if (headers != null) {
+            for (final String name : headers.keySet()) {
+                if (HEADER_ETAG.equalsIgnoreCase(name)) {
+                    return null; // verified by the server
+                }
+            }
+        }
+        return md5();
     }
 
     /**
-     * Purges authentication information.
+     * Returns a function which, before applying given function, verifies the
+     * {@value #HEADER_ETAG} of a successful response against specified
+     * digest.
      *
-     * @return this client
+     * @param <R> result type parameter
+     * @param digest the digest updated with the request entity; may be
+     * {@code null} for no verification
+     * @param function the function
+     * @return a function verifies the response
      */
-    public T invalidate() {
-        storageUrl = null;
-        authToken = null;
-        authTokenExpires = null;
-        return (T) this;
+    protected <R> Function<ResponseType, R> verifying(
+            final MessageDigest digest,
+            final Function<ResponseType, R> function) {
+        if (digest == null) {
+            return function;
+        }
+        return r -> {
+            final int statusCode = getStatusCode(r);
+            if (statusCode >= 200 && statusCode < 300) {
+                final String md5 = hex(digest.digest());
+                final String etag = getHeaderValue(r, HEADER_ETAG);
+                if (!md5.equalsIgnoreCase(etag)) {
+                    throw new StorageClientException(
+                            "etag mismatch; " + md5 + " != " + etag);
+                }
+            }
+            return function.apply(r);
+        };
     }
 
     /**
-     * Checks if the authorization information is valid until given
-     * milliseconds.
+     * Returns a function which, before applying given function, invalidates
+     * cached metadata of specified resource and its parents.
      *
-     * @param until the milliseconds
-     * @return {@code true} if the token is value until given milliseconds,
-     * {@code false} otherwise.
+     * @param <R> result type parameter
+     * @param containerName a container name; {@code null} for the storage
+     * @param objectName an object name; {@code null} for the container
+     * @param function the function
+     * @return a function invalidates cached metadata
      */
-    public boolean isValid(final long until) {
-        return storageUrl != null && authToken != null
-               && authTokenExpires != null
-               && authTokenExpires.getTime() >= until;
+    protected <R> Function<ResponseType, R> invalidating(
+            final String containerName, final String objectName,
+            final Function<ResponseType, R> function) {
+        return r -> {
+            if (containerName == null) {
+                metadataCache.invalidate("");
+            } else if (objectName == null) {
+                metadataCache.invalidate("", containerName);
+            } else {
+                metadataCache.invalidate(
+                        "", containerName, containerName + "/" + objectName);
+            }
+            return function.apply(r);
+        };
     }
 
     /**
-     * Checks if the authentication token is valid in specified unit and
-     * duration.
-     *
-     * @param unit the unit of time
-     * @param duration the duration of the time unit.
-     * @return {@code true} if the token is valid until specified time;
-     * {@code false} otherwise.
+     * Returns a cached value of given key or caches a value supplied.
      */
-    public boolean isValid(final TimeUnit unit, final long duration) {
-        return isValid(currentTimeMillis() + unit.toMillis(duration));
+    private <V> V peekCached(final String key, final long ttl,
+                             final Supplier<V> supplier) {
+        if (ttl == 0L) {
+            return supplier.get();
+        }
+        final MetadataCache.Entry entry = metadataCache.get(key);
+        if (entry != null) {
+            @SuppressWarnings("unchecked")
+            final V value = (V) entry.value;
+            return value;
+        }
+        final long generation = metadataCache.generation();
+        final V value = supplier.get();
+        metadataCache.put(key, value, ttl, generation);
+        return value;
     }
 
-    // ---------------------------------------------------------------- /storage
     /**
-     * Peeks the storage using the {@code HEAD} method. Note that the
-     * {@code Accept} header (with any value; e.g. *\/*} might be required.
+     * Returns the first value of a header of given response.
      *
-     * @param <R> result type parameter
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @param response the response
+     * @param name the header name
+     * @return the first value of the header or {@code null} if absent
      */
-    public abstract <R> R peekStorage(Map<String, List<Object>> params,
-                                      Map<String, List<Object>> headers,
-                                      Function<ResponseType, R> function);
+    public abstract String getHeaderValue(ResponseType response, String name);
 
     /**
-     * Reads the storage using {@code GET} method.
+     * Returns the value of given header of specified response as a number.
      *
-     * @param <R> result type parameter
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @param response the response
+     * @param name the header name
+     * @return the header value as a number
+     * @throws StorageClientException if the header is missing or not a
+     * number
      */
-    public abstract <R> R readStorage(final Map<String, List<Object>> params,
-                                      final Map<String, List<Object>> headers,
-                                      final Function<ResponseType, R> function);
+    protected long getHeaderLong(final ResponseType response,
+                                 final String name) {
+        final String value = getHeaderValue(response, name);
+        if (value == null) {
+            throw new StorageClientException("no " + name + " in response");
+        }
+        try {
+            return parseLong(value.trim());
+        } catch (final NumberFormatException nfe) {
+            throw new StorageClientException(
+                    "illegal " + name + "; " + value, nfe);
+        }
+    }
 
     /**
-     * Reads container names and accepts each of them to given consumer. Put
-     * parameters such as {@link #QUERY_PARAM_LIMIT} or
-     * {@link #QUERY_PARAM_MARKER} into {@code params} if required.
+     * Returns the entity stream of given response as transferred.
      *
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function for yielding a {@code Reader} from the server
-     * response. Make the function to throw a {@link StorageClientException} to
-     * stop the iteration.
-     * @param consumer a consumer accepts each container names
-     * @return this client
+     * @param response the response
+     * @return the entity stream
      */
-    public T readStorageContainerNames(
-            Map<String, List<Object>> params,
-            Map<String, List<Object>> headers,
-            final Function<ResponseType, Reader> function,
-            final Consumer<String> consumer) {
-        if (params == null) {
-            params = new HashMap<>();
+    public abstract InputStream getRawEntityStream(ResponseType response);
+
+    /**
+     * Returns the entity stream of given response. The stream is decoded as it
+     * is read if the {@link #isCompression() compression} is on and the
+     * response is a {@code 200} with {@code Content-Encoding: gzip}.
+     *
+     * @param response the response
+     * @return the entity stream
+     */
+    public InputStream getEntityStream(final ResponseType response) {
+        final InputStream raw = getRawEntityStream(response);
+        if (!isCompression() || getStatusCode(response) != 200
+            || !ENCODING_GZIP.equalsIgnoreCase(
+                    getHeaderValue(response, HEADER_CONTENT_ENCODING))) {
+            return raw;
         }
-        params.putIfAbsent(QUERY_PARAM_LIMIT, singletonList(512));
-        if (headers == null) {
-            headers = new HashMap<>();
+        try {
+            return new GZIPInputStream(raw, 65536);
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
         }
-        for (Iterator<String> i = headers.keySet().iterator(); i.hasNext();) {
-            if ("accept".equalsIgnoreCase(i.next())) {
-                i.remove();
-            }
+    }
+
+    /**
+     * Returns whether an upload with given request headers is to be
+     * compressed.
+     *
+     * @param headers the request headers; may be {@code null}
+     * @return {@code true} if the {@link #isCompression() compression} is on
+     * and {@code headers} has no {@value #HEADER_CONTENT_ENCODING};
+     * {@code false} otherwise
+     */
+    protected boolean compressing(final Map<String, List<Object>> headers) {
+        if (!isCompression()) {
+            return false;
         }
-        headers.put("Accept", singletonList("text/plain"));
-        final String marker_;
-        {
-            String marker__;
-            try {
-                marker__ = params.get(QUERY_PARAM_MARKER).get(0).toString();
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                marker__ = null;
+        if (headers != null) {
+            for (final String name : headers.keySet()) {
+                if (HEADER_CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                    return false;
+                }
             }
-            marker_ = marker__;
         }
-        for (final String[] marker = new String[]{marker_};;) {
-            if (marker[0] != null) {
-                params.put(QUERY_PARAM_MARKER, singletonList(marker[0]));
-            }
-            marker[0] = null;
-            final Object result = readStorage(
-                    params,
-                    headers,
-                    r -> {
-                        try {
-                            try {
-                                try (Reader reader = function.apply(r)) {
-                                    lines(reader, consumer);
-                                }
-                                return null;
-                            } catch (final StorageClientException sce) {
-                                return sce;
-                            }
-                        } catch (final IOException ioe) {
-                            throw new StorageClientException(ioe);
-                        }
-                    }
-            );
-            if (result != null) {
-                break;
+        return true;
+    }
+
+    /**
+     * Returns whether given request headers make the body of a response
+     * partial or conditional so that the body should not be cached.
+     *
+     * @param headers the request headers; may be {@code null}
+     * @return {@code true} if the body should not be cached
+     */
+    private static boolean uncacheable(
+            final Map<String, List<Object>> headers) {
+        if (headers == null) {
+            return false;
+        }
+        for (final String name : headers.keySet()) {
+            for (final String uncacheable : UNCACHEABLE_HEADERS) {
+                if (uncacheable.equalsIgnoreCase(name)) {
+                    return true;
+                }
             }
-            if (marker[0] == null) {
-                break;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of given request headers with
+     * {@value #HEADER_CONTENT_ENCODING} of {@value #ENCODING_IDENTITY} unless
+     * already specified so that the request is not compressed.
+     *
+     * @param headers the request headers; may be {@code null}
+     * @return a new map of headers
+     */
+    private static Map<String, List<Object>> identity(
+            final Map<String, List<Object>> headers) {
+        final Map<String, List<Object>> copy = headers == null
+                                               ? new HashMap<>()
+                                               : new HashMap<>(headers);
+        for (final String name : copy.keySet()) {
+            if (HEADER_CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return copy;
             }
         }
-        return (T) this;
+        copy.put(HEADER_CONTENT_ENCODING, singletonList(ENCODING_IDENTITY));
+        return copy;
     }
 
-    public abstract <R> R configureStorage(Map<String, List<Object>> params,
-                                           Map<String, List<Object>> headers,
+    // -------------------------------------------------------------------------
+    /**
+     * Authenticates user.
+     *
+     * @param <R> result type parameter
+     * @param newToken a flag for refreshing the token.
+     * @param function a function results the result
+     * @return the value the function results
+     */
+    public abstract <R> R authenticateUser(boolean newToken,
                                            Function<ResponseType, R> function);
 
-    // ------------------------------------------------------ /storage/container
     /**
-     * Peeks a container using {@code HEAD} method.
+     * Authenticates user asynchronously.
      *
      * @param <R> result type parameter
-     * @param containerName the name of the container
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
+     * @param newToken a flag for refreshing the token.
      * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @return a future of the value the function results
+     * @see #authenticateUser(boolean, java.util.function.Function)
      */
-    public abstract <R> R peekContainer(String containerName,
-                                        Map<String, List<Object>> params,
-                                        Map<String, List<Object>> headers,
-                                        Function<ResponseType, R> function);
+    public <R> CompletableFuture<R> authenticateUserAsync(
+            final boolean newToken, final Function<ResponseType, R> function) {
+        return supplyAsync(() -> authenticateUser(newToken, function),
+                           getExecutor());
+    }
 
     /**
-     * Reads a container using {@code GET} method.
+     * Authenticates user and returns the status code.
      *
-     * @param <R> result type parameter
-     * @param containerName the name of the container
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code funtion} results
+     * @param newToken a flag for refreshing the token.
+     * @return status code of user authentication
      */
-    public abstract <R> R readContainer(String containerName,
-                                        Map<String, List<Object>> params,
-                                        Map<String, List<Object>> headers,
-                                        Function<ResponseType, R> function);
+    public int authenticateUser(final boolean newToken) {
+        return authenticateUser(newToken, this::getStatusCode);
+    }
 
     /**
-     * Reads object names in a container and accepts each of them to specified
-     * consumer.
+     * Purges authentication information.
      *
-     * @param containerName the name of the container
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function for creating a reader from the server
-     * response; make this function to throw a {@link StorageClientException}
-     * for stopping the iteration.
-     * @param consumer the consumer
-     * @return this client.
+     * @return this client
      */
-    public T readContainerObjectNames(
-            final String containerName, Map<String, List<Object>> params,
-            Map<String, List<Object>> headers,
-            final Function<ResponseType, Reader> function,
-            final Consumer<String> consumer) {
-        if (params == null) {
-            params = new HashMap<>();
-        }
-        params.putIfAbsent(QUERY_PARAM_LIMIT, singletonList(512));
-        if (headers == null) {
-            headers = new HashMap<>();
-        }
-        headers.put("Accept", singletonList("text/plain"));
-        final String marker_;
-        {
-            String marker__;
-            try {
-                marker__ = params.get(QUERY_PARAM_MARKER).get(0).toString();
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                marker__ = null;
-            }
-            marker_ = marker__;
-        }
-        for (final String[] marker = new String[]{marker_};;) {
-            if (marker[0] != null) {
-                params.put(QUERY_PARAM_MARKER, singletonList(marker[0]));
-            }
-            marker[0] = null;
-            final Object result = readContainer(
-                    containerName,
-                    params,
-                    headers,
-                    r -> {
-                        try {
-                            try {
-                                try (Reader reader = function.apply(r)) {
-                                    lines(reader, consumer);
-                                }
-                                return null;
-                            } catch (final StorageClientException sce) {
-                                return sce;
-                            }
-                        } catch (final IOException ioe) {
-                            throw new StorageClientException(ioe);
-                        }
-                    }
-            );
-            if (result != null) {
-                break;
-            }
-            if (marker[0] == null) {
-                break;
-            }
-        }
+    public T invalidate() {
+        update(current -> Session.EMPTY);
         return (T) this;
     }
 
     /**
-     * Creates or updates a container using {@code PUT} method.
+     * Checks if the authorization information is valid until given
+     * milliseconds.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @param until the milliseconds
+     * @return {@code true} if the token is value until given milliseconds,
+     * {@code false} otherwise.
      */
-    public abstract <R> R updateContainer(String containerName,
-                                          Map<String, List<Object>> params,
-                                          Map<String, List<Object>> headers,
-                                          Function<ResponseType, R> function);
+    public boolean isValid(final long until) {
+        return session.isValid(until);
+    }
 
     /**
-     * Configures a container using the {@code POST} method.
+     * Checks if the authentication token is valid in specified unit and
+     * duration.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @param unit the unit of time
+     * @param duration the duration of the time unit.
+     * @return {@code true} if the token is valid until specified time;
+     * {@code false} otherwise.
      */
-    public abstract <R> R configureContainer(
-            final String containerName,
-            final Map<String, List<Object>> params,
-            final Map<String, List<Object>> headers,
-            final Function<ResponseType, R> function);
+    public boolean isValid(final TimeUnit unit, final long duration) {
+        return isValid(currentTimeMillis() + unit.toMillis(duration));
+    }
 
     /**
-     * Deletes a container using {@code DELETE} method.
+     * Authenticates user for a new token in the background. Concurrent callers
+     * share a single in-flight authentication; a call while an authentication
+     * is in flight returns the future of it.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @return a future of the status code of the authentication
      */
-    public abstract <R> R deleteContainer(String containerName,
-                                          Map<String, List<Object>> params,
-                                          Map<String, List<Object>> headers,
-                                          Function<ResponseType, R> function);
+    public CompletableFuture<Integer> refreshToken() {
+        return refreshToken(getExecutor());
+    }
 
     /**
-     * Deletes a container.
+     * Authenticates user for a new token with given executor. Concurrent
+     * callers share a single in-flight authentication. With an executor which
+     * runs tasks in place, e.g. {@code Runnable::run}, the caller which starts
+     * the authentication authenticates on its own thread and the others wait
+     * for it, so that no executor thread is required.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param function a function to be applied with the server response
-     * @return the result the {@code function} results
+     * @param executor the executor to authenticate with
+     * @return a future of the status code of the authentication
      */
-    public <R> R deleteContainer(final String containerName,
-                                 final Function<ResponseType, R> function) {
-        return deleteContainer(containerName, null, null, function);
+    private CompletableFuture<Integer> refreshToken(final Executor executor) {
+        while (true) {
+            final CompletableFuture<Integer> existing = refreshing.get();
+            if (existing != null) {
+                return existing;
+            }
+            final CompletableFuture<Integer> created
+                    = new CompletableFuture<>();
+            if (!refreshing.compareAndSet(null, created)) {
+                continue;
+            }
+            try {
+                executor.execute(() -> {
+                    Integer statusCode = null;
+                    RuntimeException failure = null;
+                    try {
+                        statusCode = authenticateUser(
+                                true, expect("failed to authenticate", 200));
+                    } catch (final RuntimeException re) {
+                        failure = re;
+                    }
+                    if (failure == null) {
+                        storeSession();
+                    }
+                    refreshing.compareAndSet(created, null);
+                    if (failure != null) {
+                        created.completeExceptionally(failure);
+                    } else {
+                        created.complete(statusCode);
+                    }
+                });
+            } catch (final RuntimeException re) {
+                refreshing.compareAndSet(created, null);
+                created.completeExceptionally(re);
+            }
+            return created;
+        }
     }
 
     /**
-     * Deletes a container and returns the status code of the server response.
+     * Authenticates user unless the current session is valid in given
+     * duration. When the {@link #getTokenFile() token file} is specified, a
+     * session stored in the file is used if it is of the same user and valid
+     * in given duration; otherwise the user is authenticated and the new
+     * session is stored in the file. The file is exclusively locked all the
+     * while so that, of processes started together, only the first one
+     * authenticates and the others use the session it stored.
      *
-     * @param containerName container name
-     * @return the status code of the server response
+     * @param unit the unit of {@code duration}
+     * @param duration the duration in which the session should be valid
+     * @return {@code true} if an existing session is used; {@code false} if
+     * the user is authenticated
      */
-    public int deleteContainer(final String containerName) {
-        return deleteContainer(containerName, this::getStatusCode);
+    public boolean authenticateUserCached(final TimeUnit unit,
+                                          final long duration) {
+        if (isValid(unit, duration)) {
+            return true;
+        }
+        final Path path = getTokenFile();
+        if (path == null) {
+            authenticateUser(true, expect("failed to authenticate", 200));
+            return false;
+        }
+        final boolean[] restored = new boolean[1];
+        try {
+            TokenFile.update(path, p -> {
+                if (restoreSession(
+                        p, currentTimeMillis() + unit.toMillis(duration))) {
+                    restored[0] = true;
+                    return false;
+                }
+                authenticateUser(true, expect("failed to authenticate", 200));
+                storeSession(p);
+                return true;
+            });
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+        return restored[0];
+    }
+
+    private boolean restoreSession(final Properties properties,
+                                   final long until) {
+        if (!getAuthUrl().equals(properties.getProperty(TOKEN_AUTH_URL))
+            || !getAuthUser().equals(
+                    properties.getProperty(TOKEN_AUTH_USER))) {
+            return false;
+        }
+        final String storageUrl = properties.getProperty(TOKEN_STORAGE_URL);
+        final long expires;
+        try {
+            expires = parseLong(properties.getProperty(
+                    TOKEN_AUTH_TOKEN_EXPIRES, "-1"));
+        } catch (final NumberFormatException nfe) {
+            return false;
+        }
+        final Session restored = new Session(
+                storageUrl, accountUrl(storageUrl),
+                properties.getProperty(TOKEN_AUTH_TOKEN), expires);
+        if (!restored.isValid(until)) {
+            return false;
+        }
+        update(current -> restored);
+        return true;
+    }
+
+    private void storeSession(final Properties properties) {
+        final Session current = session;
+        properties.clear();
+        properties.setProperty(TOKEN_AUTH_URL, getAuthUrl());
+        properties.setProperty(TOKEN_AUTH_USER, getAuthUser());
+        properties.setProperty(TOKEN_STORAGE_URL, current.getStorageUrl());
+        properties.setProperty(TOKEN_AUTH_TOKEN, current.getAuthToken());
+        properties.setProperty(TOKEN_AUTH_TOKEN_EXPIRES,
+                               Long.toString(
+                                       current.getAuthTokenExpiresMillis()));
+    }
+
+    private void storeSession() {
+        final Path path = getTokenFile();
+        if (path == null) {
+            return;
+        }
+        try {
+            TokenFile.update(path, p -> {
+                storeSession(p);
+                return true;
+            });
+        } catch (final IOException | RuntimeException e) {
+            logger.log(WARNING, "failed to store the session", e);
+        }
     }
 
-    // ----------------------------------------------- /storage/container/object
     /**
-     * Peeks an object using {@code HEAD} method.
+     * Starts refreshing the token, with {@link #refreshToken()}, on given
+     * scheduler ahead of its expiry so that requests never wait for an
+     * authentication. The first refresh is made immediately if this client is
+     * not authenticated yet. A token living no longer than {@code ahead} is
+     * refreshed at the half of its lifetime. A failed refresh is retried after
+     * {@value #TOKEN_REFRESH_RETRY} milliseconds. Refreshing stops once the
+     * server responds without {@value #HEADER_X_AUTH_TOKEN_EXPIRES}; the
+     * token is then refreshed only when a request is
+     * {@link #isReauthentication() rejected}. Any refresh started previously
+     * is stopped.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param objectName object name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response.
-     * @return the result the {@code function} results
+     * @param scheduler the scheduler
+     * @param ahead the duration ahead of the expiry
+     * @param unit the unit of {@code ahead}
+     * @return this client
+     * @see #stopTokenRefresh()
      */
-    public abstract <R> R peekObject(String containerName, String objectName,
-                                     Map<String, List<Object>> params,
-                                     Map<String, List<Object>> headers,
-                                     Function<ResponseType, R> function);
+    public T startTokenRefresh(final ScheduledExecutorService scheduler,
+                               final long ahead, final TimeUnit unit) {
+        if (ahead < 0L) {
+            throw new IllegalArgumentException("ahead(" + ahead + ") < 0L");
+        }
+        final TokenRefresh created = new TokenRefresh(
+                scheduler, this::refreshToken,
+                () -> session.getAuthTokenExpiresMillis(),
+                unit.toMillis(ahead), TOKEN_REFRESH_RETRY);
+        final TokenRefresh previous = tokenRefresh.getAndSet(created);
+        if (previous != null) {
+            previous.cancel();
+        }
+        created.start();
+        return (T) this;
+    }
 
-    public abstract <R> R readObject(String containerName, String objectName,
-                                     Map<String, List<Object>> params,
+    /**
+     * Stops refreshing the token started by
+     * {@link #startTokenRefresh(java.util.concurrent.ScheduledExecutorService,
+     * long, java.util.concurrent.TimeUnit)}.
+     *
+     * @return this client
+     */
+    public T stopTokenRefresh() {
+        final TokenRefresh previous = tokenRefresh.getAndSet(null);
+        if (previous != null) {
+            previous.cancel();
+        }
+        return (T) this;
+    }
+
+    /**
+     * Applies given request and, when the {@link #isReauthentication()
+     * reauthentication} is on and the request is responded with {@code 401}
+     * by {@link #authorized(java.lang.Object)}, re-authenticates and applies
+     * the request once more. Concurrent requests responded with {@code 401}
+     * share a single authentication, made on the thread of the first one
+     * rather than on the {@link #getExecutor() executor}, and a request made
+     * with a token already replaced is simply applied again.
+     * Requests of which entities can't be written again should not be
+     * applied with this method.
+     *
+     * @param <R> result type parameter
+     * @param request the request
+     * @return the result of the request
+     */
+    protected <R> R replaying(final Supplier<R> request) {
+        if (!isReauthentication()) {
+            return request.get();
+        }
+        return Replay.replay(request, this::getAuthToken, used -> {
+            try {
+                // never hop to the executor; this thread may be one of its
+                reauthenticate(used, Runnable::run).join();
+            } catch (final CompletionException ce) {
+                final Throwable cause = ce.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new StorageClientException(cause);
+            }
+        });
+    }
+
+    /**
+     * Re-authenticates, for an asynchronous request responded with
+     * {@code 401}, with the {@link #getExecutor() executor} unless the token
+     * with which the request was made is already replaced. Concurrent callers
+     * share a single authentication, as those of
+     * {@link #replaying(Supplier)} do.
+     *
+     * @param used the token with which the request was made
+     * @return a future completes when the request can be made once more
+     */
+    protected CompletableFuture<?> reauthenticateAsync(final String used) {
+        return reauthenticate(used, getExecutor());
+    }
+
+    private CompletableFuture<?> reauthenticate(final String used,
+                                                final Executor executor) {
+        final String current = getAuthToken();
+        if (used != null && !used.equals(current)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return refreshToken(executor);
+    }
+
+    /**
+     * Checks given response before handed to the function of a request. The
+     * response is {@link #recorded(java.lang.Object) recorded} and a
+     * {@code 401} response aborts the request, to be applied once more, if
+     * the request is being applied by {@link #replaying(Supplier)} for the
+     * first time. Otherwise this method does nothing but returning given
+     * response.
+     *
+     * @param response the response
+     * @return given response
+     */
+    protected ResponseType authorized(final ResponseType response) {
+        Replay.check(getStatusCode(recorded(response)));
+        return response;
+    }
+
+    /**
+     * Records given response to the {@link #getMetrics() metrics}, if any.
+     * Subclasses call this method for responses not checked with
+     * {@link #authorized(java.lang.Object)}.
+     *
+     * @param response the response
+     * @return given response
+     */
+    protected ResponseType recorded(final ResponseType response) {
+        final StorageMetrics current = metrics;
+        if (current != null) {
+            current.record(getStatusCode(response));
+        }
+        return response;
+    }
+
+    // -------------------------------------------------------------------------
+    Map<String, List<Object>> listParams(
+            final Map<String, List<Object>> params) {
+        final Map<String, List<Object>> copy = params == null
+                                               ? new HashMap<>()
+                                               : new HashMap<>(params);
+        copy.putIfAbsent(QUERY_PARAM_LIMIT, singletonList(getListLimit()));
+        return copy;
+    }
+
+    <E> Stream<E> entries(final Iterator<List<E>> pages) {
+        final int prefetch = getListPrefetch();
+        if (prefetch <= 0) {
+            return iterated(new MarkerIterator<>(pages));
+        }
+        final PrefetchingIterator<List<E>> prefetching
+                = new PrefetchingIterator<>(pages, prefetch, getExecutor());
+        return iterated(new MarkerIterator<>(prefetching))
+                .onClose(prefetching::close);
+    }
+
+    // ---------------------------------------------------------------- /storage
+    /**
+     * Peeks the storage using the {@code HEAD} method. Note that the
+     * {@code Accept} header (with any value; e.g. *\/*} might be required.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R peekStorage(Map<String, List<Object>> params,
+                                      Map<String, List<Object>> headers,
+                                      Function<ResponseType, R> function);
+
+    /**
+     * Peeks the storage asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #peekStorage(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> peekStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(() -> peekStorage(params, headers, function),
+                           getExecutor());
+    }
+
+    /**
+     * Peeks the storage through the metadata cache. The result is cached for
+     * {@link #getStorageMetadataTtl() storageMetadataTtl} milliseconds. The
+     * cached entry is invalidated when this client configures the storage or
+     * updates, configures or deletes any container or object.
+     *
+     * @return a storage info which should not be modified
+     */
+    public StorageInfo peekStorageCached() {
+        return peekCached(
+                "", getStorageMetadataTtl(),
+                () -> peekStorage(null, null, r -> {
+                    expect("failed to peek the storage", 200, 204).apply(r);
+                    final StorageInfo info = new StorageInfo();
+                    info.setContainerCount((int) getHeaderLong(
+                            r, HEADER_X_ACCOUNT_CONTAINER_COUNT));
+                    info.setObjectCount((int) getHeaderLong(
+                            r, HEADER_X_ACCOUNT_OBJECT_COUNT));
+                    info.setBytesUsed(getHeaderLong(
+                            r, HEADER_X_ACCOUNT_BYTES_USED));
+                    return info;
+                }));
+    }
+
+    /**
+     * Reads the storage using {@code GET} method.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R readStorage(final Map<String, List<Object>> params,
+                                      final Map<String, List<Object>> headers,
+                                      final Function<ResponseType, R> function);
+
+    /**
+     * Reads the storage asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #readStorage(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> readStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(() -> readStorage(params, headers, function),
+                           getExecutor());
+    }
+
+    /**
+     * Reads container names and accepts each of them to given consumer. Put
+     * parameters such as {@link #QUERY_PARAM_LIMIT} or
+     * {@link #QUERY_PARAM_MARKER} into {@code params} if required.
+     *
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response. Make the function to throw a {@link StorageClientException} to
+     * stop the iteration.
+     * @param consumer a consumer accepts each container names
+     * @return this client
+     */
+    public T readStorageContainerNames(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function,
+            final Consumer<String> consumer) {
+        try (Stream<String> names = streamStorageContainerNames(
+                params, headers, stoppable(function))) {
+            names.forEachOrdered(consumer);
+        }
+        return (T) this;
+    }
+
+    /**
+     * Returns an iterator of container names. Pages are lazily read, each with
+     * the last name of the previous page as the marker, until a page shorter
+     * than the limit is read.
+     *
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response
+     * @return an iterator of container names
+     */
+    public Iterator<String> iterateStorageContainerNames(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function) {
+        return new MarkerIterator<>(
+                storageContainerNamePages(params, headers, function));
+    }
+
+    /**
+     * Returns a lazy stream of container names. Pages are read ahead in the
+     * background if {@link #getListPrefetch() listPrefetch} is positive; close
+     * the stream if it is not exhausted.
+     *
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response
+     * @return a stream of container names
+     * @see #iterateStorageContainerNames(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public Stream<String> streamStorageContainerNames(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function) {
+        return entries(storageContainerNamePages(params, headers, function));
+    }
+
+    private Iterator<List<String>> storageContainerNamePages(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function) {
+        final Map<String, List<Object>> params_ = listParams(params);
+        final Map<String, List<Object>> headers_ = listHeaders(headers);
+        return MarkerPages.names(
+                m -> readStorage(marked(params_, m), headers_,
+                                 r -> lines(function.apply(r))),
+                listLimit(params_), listMarker(params_));
+    }
+
+    public abstract <R> R configureStorage(Map<String, List<Object>> params,
+                                           Map<String, List<Object>> headers,
+                                           Function<ResponseType, R> function);
+
+    /**
+     * Configures the storage asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #configureStorage(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> configureStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(() -> configureStorage(params, headers, function),
+                           getExecutor());
+    }
+
+    // ------------------------------------------------------ /storage/container
+    /**
+     * Peeks a container using {@code HEAD} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R peekContainer(String containerName,
+                                        Map<String, List<Object>> params,
+                                        Map<String, List<Object>> headers,
+                                        Function<ResponseType, R> function);
+
+    /**
+     * Peeks a container asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #peekContainer(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> peekContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> peekContainer(containerName, params, headers, function),
+                getExecutor());
+    }
+
+    /**
+     * Peeks a container through the metadata cache. The result is cached for
+     * {@link #getContainerMetadataTtl() containerMetadataTtl} milliseconds
+     * including the absence of the container. The cached entry is invalidated
+     * when this client updates, configures or deletes the container or any
+     * object in it.
+     *
+     * @param containerName container name
+     * @return a container info, which should not be modified; {@code null} if
+     * the container doesn't exist
+     */
+    public ContainerInfo peekContainerCached(final String containerName) {
+        return peekCached(
+                containerName, getContainerMetadataTtl(),
+                () -> peekContainer(containerName, null, null, r -> {
+                    if (expect("failed to peek " + containerName, 200, 204, 404)
+                            .apply(r) == 404) {
+                        return null;
+                    }
+                    final ContainerInfo info = new ContainerInfo();
+                    info.setObjectCount((int) getHeaderLong(
+                            r, HEADER_X_CONTAINER_OBJECT_COUNT));
+                    info.setBytesUsed(getHeaderLong(
+                            r, HEADER_X_CONTAINER_BYTES_USED));
+                    return info;
+                }));
+    }
+
+    /**
+     * Reads a container using {@code GET} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code funtion} results
+     */
+    public abstract <R> R readContainer(String containerName,
+                                        Map<String, List<Object>> params,
+                                        Map<String, List<Object>> headers,
+                                        Function<ResponseType, R> function);
+
+    /**
+     * Reads a container asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #readContainer(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> readContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> readContainer(containerName, params, headers, function),
+                getExecutor());
+    }
+
+    /**
+     * Reads object names in a container and accepts each of them to specified
+     * consumer.
+     *
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for creating a reader from the server
+     * response; make this function to throw a {@link StorageClientException}
+     * for stopping the iteration.
+     * @param consumer the consumer
+     * @return this client.
+     */
+    public T readContainerObjectNames(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function,
+            final Consumer<String> consumer) {
+        try (Stream<String> names = streamContainerObjectNames(
+                containerName, params, headers, stoppable(function))) {
+            names.forEachOrdered(consumer);
+        }
+        return (T) this;
+    }
+
+    /**
+     * Returns an iterator of object names in a container. Pages are lazily
+     * read, each with the last name of the previous page as the marker, until a
+     * page shorter than the limit is read.
+     *
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response
+     * @return an iterator of object names
+     */
+    public Iterator<String> iterateContainerObjectNames(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function) {
+        return new MarkerIterator<>(containerObjectNamePages(
+                containerName, params, headers, function));
+    }
+
+    /**
+     * Returns a lazy stream of object names in a container. Pages are read
+     * ahead in the background if {@link #getListPrefetch() listPrefetch} is
+     * positive; close the stream if it is not exhausted.
+     *
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response
+     * @return a stream of object names
+     * @see #iterateContainerObjectNames(java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function)
+     */
+    public Stream<String> streamContainerObjectNames(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function) {
+        return entries(containerObjectNamePages(
+                containerName, params, headers, function));
+    }
+
+    private Iterator<List<String>> containerObjectNamePages(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function) {
+        final Map<String, List<Object>> params_ = listParams(params);
+        final Map<String, List<Object>> headers_ = listHeaders(headers);
+        return MarkerPages.names(
+                m -> readContainer(containerName, marked(params_, m), headers_,
+                                   r -> lines(function.apply(r))),
+                listLimit(params_), listMarker(params_));
+    }
+
+    /**
+     * Returns an iterator of object entries in a container. Entries are read,
+     * page by page, with {@code format=xml} so that each entry has the size,
+     * the hash, the content type and the last modified time of the object.
+     *
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding the response entity stream
+     * @return an iterator of object entries
+     */
+    public Iterator<ObjectInfo> iterateContainerObjectInfos(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, InputStream> function) {
+        return new MarkerIterator<>(containerObjectInfoPages(
+                containerName, params, headers, function));
+    }
+
+    /**
+     * Returns a lazy stream of object entries in a container. Pages are read
+     * ahead in the background if {@link #getListPrefetch() listPrefetch} is
+     * positive; close the stream if it is not exhausted.
+     *
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding the response entity stream
+     * @return a stream of object entries
+     * @see #iterateContainerObjectInfos(java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function)
+     */
+    public Stream<ObjectInfo> streamContainerObjectInfos(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, InputStream> function) {
+        return entries(containerObjectInfoPages(
+                containerName, params, headers, function));
+    }
+
+    /**
+     * Reads object entries in a container and accepts each of them to
+     * specified consumer.
+     *
+     * @param containerName the name of the container
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding the response entity stream
+     * @param consumer the consumer
+     * @return this client
+     */
+    public T readContainerObjectInfos(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, InputStream> function,
+            final Consumer<ObjectInfo> consumer) {
+        try (Stream<ObjectInfo> infos = streamContainerObjectInfos(
+                containerName, params, headers, function)) {
+            infos.forEachOrdered(consumer);
+        }
+        return (T) this;
+    }
+
+    private Iterator<List<ObjectInfo>> containerObjectInfoPages(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, InputStream> function) {
+        final Map<String, List<Object>> params_ = listParams(params);
+        params_.put(QUERY_PARAM_FORMAT, singletonList("xml"));
+        final Map<String, List<Object>> headers_
+                = listHeaders(headers, "application/xml");
+        return new MarkerPages<>(
+                m -> readContainer(containerName, marked(params_, m), headers_,
+                                   r -> objectInfos(function.apply(r))),
+                ObjectInfo::getName, listLimit(params_), listMarker(params_));
+    }
+
+    /**
+     * Lists object names in a container in parallel and returns them in the
+     * listing order. Each of given prefixes is listed with specified delimiter
+     * and each sub directory found is listed by its own task on given pool. A
+     * range whose page of {@link #getListLimit() listLimit} names is full is
+     * split, with {@value #QUERY_PARAM_MARKER} and
+     * {@value #QUERY_PARAM_END_MARKER}, into halves each listed by its own
+     * task so that a flat namespace is listed in parallel as well. Tasks block
+     * on network so use a pool with a parallelism larger than the number of
+     * processors, e.g. {@code new ForkJoinPool(32)}.
+     *
+     * @param containerName the name of the container
+     * @param prefixes prefixes; a prefix starting with another is ignored as
+     * its names are listed under the other; {@code null} or empty for the
+     * whole container
+     * @param delimiter the delimiter such as {@code /}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response
+     * @param pool the pool
+     * @return a list of object names in the listing order
+     */
+    public List<String> readContainerObjectNames(
+            final String containerName, final Collection<String> prefixes,
+            final String delimiter, final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function,
+            final ForkJoinPool pool) {
+        final List<String> names = new ArrayList<>();
+        for (final ForkJoinTask<List<String>> task : shardedListings(
+                containerName, prefixes, delimiter, headers, function, null,
+                pool)) {
+            names.addAll(task.join());
+        }
+        return names;
+    }
+
+    /**
+     * Lists object names in a container in parallel and accepts each of them,
+     * in no particular order, to specified consumer. The consumer is invoked
+     * concurrently from threads of given pool.
+     *
+     * @param containerName the name of the container
+     * @param prefixes prefixes; a prefix starting with another is ignored as
+     * its names are listed under the other; {@code null} or empty for the
+     * whole container
+     * @param delimiter the delimiter such as {@code /}
+     * @param headers request headers; may be {@code null}
+     * @param function a function for yielding a {@code Reader} from the server
+     * response
+     * @param pool the pool
+     * @param consumer a thread-safe consumer
+     * @return this client
+     * @see #readContainerObjectNames(java.lang.String, java.util.Collection,
+     * java.lang.String, java.util.Map, java.util.function.Function,
+     * java.util.concurrent.ForkJoinPool)
+     */
+    public T readContainerObjectNames(
+            final String containerName, final Collection<String> prefixes,
+            final String delimiter, final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function,
+            final ForkJoinPool pool, final Consumer<String> consumer) {
+        requireNonNull(consumer, "null consumer");
+        shardedListings(containerName, prefixes, delimiter, headers, function,
+                        consumer, pool)
+                .forEach(ForkJoinTask::join);
+        return (T) this;
+    }
+
+    private List<ForkJoinTask<List<String>>> shardedListings(
+            final String containerName, final Collection<String> prefixes,
+            final String delimiter, final Map<String, List<Object>> headers,
+            final Function<ResponseType, Reader> function,
+            final Consumer<String> consumer, final ForkJoinPool pool) {
+        requireNonNull(delimiter, "null delimiter");
+        requireNonNull(pool, "null pool");
+        final int limit = getListLimit();
+        final Map<String, List<Object>> headers_ = listHeaders(headers);
+        final ShardedListing.Lister lister = (p, m, e) -> {
+            final Map<String, List<Object>> params = new HashMap<>();
+            params.put(QUERY_PARAM_PREFIX, singletonList(p));
+            params.put(QUERY_PARAM_DELIMITER, singletonList(delimiter));
+            params.put(QUERY_PARAM_LIMIT, singletonList(limit));
+            if (m != null) {
+                params.put(QUERY_PARAM_MARKER, singletonList(m));
+            }
+            if (e != null) {
+                params.put(QUERY_PARAM_END_MARKER, singletonList(e));
+            }
+            return readContainer(containerName, params, headers_,
+                                 r -> lines(function.apply(r)));
+        };
+        final List<ForkJoinTask<List<String>>> tasks = new ArrayList<>();
+        String covering = null;
+        for (final String prefix : prefixes == null || prefixes.isEmpty()
+                                   ? singletonList("")
+                                   : new TreeSet<>(prefixes)) {
+            if (covering != null && prefix.startsWith(covering)) {
+                continue; // listed under the covering prefix
+            }
+            covering = prefix;
+            tasks.add(pool.submit(new ShardedListing(
+                    lister, limit, delimiter, prefix, consumer)));
+        }
+        return tasks;
+    }
+
+    /**
+     * Creates or updates a container using {@code PUT} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R updateContainer(String containerName,
+                                          Map<String, List<Object>> params,
+                                          Map<String, List<Object>> headers,
+                                          Function<ResponseType, R> function);
+
+    /**
+     * Creates or updates a container asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #updateContainer(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> updateContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> updateContainer(containerName, params, headers, function),
+                getExecutor());
+    }
+
+    /**
+     * Configures a container using the {@code POST} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R configureContainer(
+            final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function);
+
+    /**
+     * Configures a container asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #configureContainer(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> configureContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> configureContainer(containerName, params, headers,
+                                         function),
+                getExecutor());
+    }
+
+    /**
+     * Deletes a container using {@code DELETE} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R deleteContainer(String containerName,
+                                          Map<String, List<Object>> params,
+                                          Map<String, List<Object>> headers,
+                                          Function<ResponseType, R> function);
+
+    /**
+     * Deletes a container asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #deleteContainer(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> deleteContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> deleteContainer(containerName, params, headers, function),
+                getExecutor());
+    }
+
+    /**
+     * Deletes a container.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param function a function to be applied with the server response
+     * @return the result the {@code function} results
+     */
+    public <R> R deleteContainer(final String containerName,
+                                 final Function<ResponseType, R> function) {
+        return deleteContainer(containerName, null, null, function);
+    }
+
+    /**
+     * Deletes a container and returns the status code of the server response.
+     *
+     * @param containerName container name
+     * @return the status code of the server response
+     */
+    public int deleteContainer(final String containerName) {
+        return deleteContainer(containerName, this::getStatusCode);
+    }
+
+    // ----------------------------------------------- /storage/container/object
+    /**
+     * Peeks an object using {@code HEAD} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response.
+     * @return the result the {@code function} results
+     */
+    public abstract <R> R peekObject(String containerName, String objectName,
+                                     Map<String, List<Object>> params,
+                                     Map<String, List<Object>> headers,
+                                     Function<ResponseType, R> function);
+
+    /**
+     * Peeks an object asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #peekObject(java.lang.String, java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> peekObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> peekObject(containerName, objectName, params, headers,
+                                 function),
+                getExecutor());
+    }
+
+    /**
+     * Peeks an object through the metadata cache. The result is cached for
+     * {@link #getObjectMetadataTtl() objectMetadataTtl} milliseconds including
+     * the absence of the object. The cached entry is invalidated when this
+     * client updates, configures or deletes the object.
+     *
+     * @param containerName container name
+     * @param objectName object name
+     * @return an object info of {@code bytes}, {@code hash},
+     * {@code contentType} and {@code lastModified}, which should not be
+     * modified; {@code null} if the object doesn't exist
+     */
+    public ObjectInfo peekObjectCached(final String containerName,
+                                       final String objectName) {
+        return peekCached(
+                containerName + "/" + objectName, getObjectMetadataTtl(),
+                () -> peekObject(containerName, objectName, null, null, r -> {
+                    if (expect("failed to peek " + objectName, 200, 204, 404)
+                            .apply(r) == 404) {
+                        return null;
+                    }
+                    return new ObjectInfo()
+                            .name(objectName)
+                            .bytes(getHeaderLong(r, "Content-Length"))
+                            .hash(getHeaderValue(r, HEADER_ETAG))
+                            .contentType(getHeaderValue(r, "Content-Type"))
+                            .lastModified(getHeaderValue(r, "Last-Modified"));
+                }));
+    }
+
+    public abstract <R> R readObject(String containerName, String objectName,
+                                     Map<String, List<Object>> params,
+                                     Map<String, List<Object>> headers,
+                                     Function<ResponseType, R> function);
+
+    /**
+     * Reads an object asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #readObject(java.lang.String, java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> readObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> readObject(containerName, objectName, params, headers,
+                                 function),
+                getExecutor());
+    }
+
+    /**
+     * Reads an object into given file with concurrent ranged requests. The
+     * object is peeked for its length and {@value #HEADER_ETAG} and the file
+     * is sized to the length. Each part of {@link #getPartSize() partSize}
+     * bytes is read with {@code Range} and {@code If-Match} and written at its
+     * offset of the file; at most {@link #getTransferParallelism()
+     * transferParallelism} parts are read at once and each failed part is
+     * retried at most {@link #getTransferRetries() transferRetries} times.
+     * The file is verified against the {@value #HEADER_ETAG} unless the object
+     * is a large object whose {@value #HEADER_ETAG} is not an MD5 of its
+     * content.
+     *
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param headers request headers; may be {@code null}
+     * @param path the file to write
+     * @return this client
+     */
+    public T readObjectRanged(final String containerName,
+                              final String objectName,
+                              final Map<String, List<Object>> headers,
+                              final Path path) {
+        final Object[] entity = peekObject(
+                containerName, objectName, null, headers, r -> {
+                    expect("failed to peek " + objectName, 200, 204).apply(r);
+                    return new Object[]{
+                        getHeaderLong(r, "Content-Length"),
+                        getHeaderValue(r, HEADER_ETAG)};
+                });
+        final long length = (Long) entity[0];
+        final String etag = (String) entity[1];
+        try (FileChannel channel = FileChannel.open(
+                path, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            if (length > 0L) {
+                channel.write(ByteBuffer.allocate(1), length - 1L);
+            }
+            final long partSize = getPartSize();
+            Parallel.run(getExecutor(), getTransferParallelism(),
+                         segmentCount(length, partSize), i -> {
+                final long position = i * partSize;
+                final long count = Math.min(partSize, length - position);
+                Parallel.retry(getTransferRetries(), () -> readObjectRange(
+                               containerName, objectName, headers, etag,
+                               channel, position, count));
+            });
+            channel.force(false);
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+        verify(path, etag);
+        return (T) this;
+    }
+
+    /**
+     * Reads the body of an object through the object cache. A cached body is
+     * revalidated with {@code If-None-Match}, or {@code If-Modified-Since} if
+     * no {@value #HEADER_ETAG} is known, and served from the cache when the
+     * server responds with {@code 304}. The body is read without the cache if
+     * the {@link #getObjectCacheCapacity() objectCacheCapacity} is
+     * {@code 0L} or if {@code headers} has any of {@code Range},
+     * {@code If-Match}, {@code If-None-Match}, {@code If-Modified-Since} and
+     * {@code If-Unmodified-Since}, with which a body is partial or
+     * conditional.
+     *
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @return the body of the object
+     */
+    public byte[] readObjectCached(final String containerName,
+                                   final String objectName,
+                                   final Map<String, List<Object>> params,
+                                   final Map<String, List<Object>> headers) {
+        final ObjectCache cache = uncacheable(headers) ? null : objectCache;
+        final String key = containerName + "/" + objectName
+                           + (params == null || params.isEmpty()
+                              ? "" : "?" + params);
+        final ObjectCache.Entry cached = cache == null ? null : cache.get(key);
+        final Map<String, List<Object>> headers_ = headers == null
+                                                   ? new HashMap<>()
+                                                   : new HashMap<>(headers);
+        if (cached != null) {
+            if (cached.etag != null) {
+                headers_.put("If-None-Match", singletonList(cached.etag));
+            } else if (cached.lastModified != null) {
+                headers_.put("If-Modified-Since",
+                             singletonList(cached.lastModified));
+            }
+        }
+        return readObject(containerName, objectName, params, headers_, r -> {
+            final int statusCode = getStatusCode(r);
+            if (cached != null && statusCode == 304) {
+                return cached.body.clone();
+            }
+            expect("failed to read " + objectName, 200, 206).apply(r);
+            final byte[] body;
+            try (InputStream input = getEntityStream(r)) {
+                final ByteArrayOutputStream output
+                        = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[8192];
+                for (int read; (read = input.read(buffer)) != -1;) {
+                    output.write(buffer, 0, read);
+                }
+                body = output.toByteArray();
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
+            }
+            if (cache != null) {
+                cache.put(key, new ObjectCache.Entry(
+                          getHeaderValue(r, HEADER_ETAG),
+                          getHeaderValue(r, "Last-Modified"), body.clone()));
+            }
+            return body;
+        });
+    }
+
+    /**
+     * Reads an object into given file resuming from a checkpoint of a previous
+     * attempt if any. A checkpoint, the {@value #HEADER_ETAG} and the number of
+     * bytes written, is stored next to the file, as {@code <file>.checkpoint},
+     * every {@value #CHECKPOINT_INTERVAL} bytes. An attempt with a checkpoint
+     * continues with {@code Range} and {@code If-Match} and starts over only if
+     * the object has been changed. A failed attempt is retried, and the reading
+     * is started over, each at most
+     * {@link #getTransferRetries() transferRetries} times. The file is verified
+     * against the {@value #HEADER_ETAG} and the checkpoint is deleted when the
+     * object is read completely.
+     *
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param headers request headers; may be {@code null}
+     * @param path the file to write
+     * @return this client
+     */
+    public T readObjectResumable(final String containerName,
+                                 final String objectName,
+                                 final Map<String, List<Object>> headers,
+                                 final Path path) {
+        final Path sidecar = Checkpoint.sidecar(path);
+        Checkpoint checkpoint;
+        for (int restarts = 0;; restarts++) {
+            checkpoint = Parallel.retry(getTransferRetries(), () -> resume(
+                                        containerName, objectName, headers,
+                                        path, sidecar));
+            if (checkpoint != null) {
+                break;
+            }
+            if (restarts >= getTransferRetries()) {
+                throw new StorageClientException(
+                        "failed to read " + objectName + "; changed "
+                        + (restarts + 1) + " times while being read");
+            }
+        }
+        verify(path, checkpoint.etag);
+        try {
+            Files.deleteIfExists(sidecar);
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+        return (T) this;
+    }
+
+    /**
+     * Reads an object, or the rest of it, into given file.
+     *
+     * @return the final checkpoint or {@code null} if the object has been
+     * changed and the reading should be started over
+     */
+    private Checkpoint resume(final String containerName,
+                              final String objectName,
+                              final Map<String, List<Object>> headers,
+                              final Path path, final Path sidecar) {
+        final Checkpoint checkpoint;
+        try {
+            checkpoint = Files.exists(path) ? Checkpoint.load(sidecar) : null;
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+        final Map<String, List<Object>> headers_ = headers == null
+                                                   ? new HashMap<>()
+                                                   : new HashMap<>(headers);
+        if (checkpoint != null) {
+            headers_.put("Range",
+                         singletonList("bytes=" + checkpoint.offset + "-"));
+            if (checkpoint.etag != null) {
+                headers_.put("If-Match", singletonList(checkpoint.etag));
+            }
+        }
+        return readObject(containerName, objectName, null, headers_, r -> {
+            final int statusCode = getStatusCode(r);
+            try {
+                if (checkpoint != null && statusCode == 412) { // changed
+                    Files.deleteIfExists(sidecar);
+                    return null;
+                }
+                if (checkpoint != null && statusCode == 416) { // nothing left
+                    return checkpoint;
+                }
+                if (statusCode != 200
+                    && (checkpoint == null || statusCode != 206)) {
+                    throw new StorageClientException(
+                            "failed to read " + objectName + "; "
+                            + statusCode);
+                }
+                final String etag = statusCode == 206
+                                    ? checkpoint.etag
+                                    : getHeaderValue(r, HEADER_ETAG);
+                long position = statusCode == 206 ? checkpoint.offset : 0L;
+                try (FileChannel channel = FileChannel.open(
+                        path, CREATE, WRITE);
+                     InputStream input = getRawEntityStream(r)) {
+                    final byte[] array = new byte[65536];
+                    final ByteBuffer buffer = ByteBuffer.wrap(array);
+                    long unsaved = 0L;
+                    for (int read; (read = input.read(array)) != -1;) {
+                        buffer.clear().limit(read);
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                        if ((unsaved += read) >= CHECKPOINT_INTERVAL) {
+                            channel.force(false);
+                            new Checkpoint(etag, position).store(sidecar);
+                            unsaved = 0L;
+                        }
+                    }
+                    channel.truncate(position);
+                    channel.force(false);
+                }
+                final Checkpoint last = new Checkpoint(etag, position);
+                last.store(sidecar);
+                return last;
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
+            }
+        });
+    }
+
+    /**
+     * Reads a range of an object and writes it into given channel at the same
+     * position.
+     *
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param headers request headers; may be {@code null}
+     * @param etag the expected {@value #HEADER_ETAG}; may be {@code null}
+     * @param channel the channel to write
+     * @param position the starting position of the range
+     * @param count the number of bytes of the range
+     * @return the number of bytes written
+     */
+    long readObjectRange(final String containerName, final String objectName,
+                         final Map<String, List<Object>> headers,
+                         final String etag, final FileChannel channel,
+                         final long position, final long count) {
+        final Map<String, List<Object>> headers_ = headers == null
+                                                   ? new HashMap<>()
+                                                   : new HashMap<>(headers);
+        headers_.put("Range", singletonList(
+                     "bytes=" + position + "-" + (position + count - 1L)));
+        if (etag != null) {
+            headers_.put("If-Match", singletonList(etag));
+        }
+        return readObject(containerName, objectName, null, headers_, r -> {
+            expect("failed to read a range of " + objectName, 206).apply(r);
+            try (InputStream input = getRawEntityStream(r)) {
+                final long written = write(input, channel, position);
+                if (written != count) {
+                    throw new StorageClientException(
+                            "unexpected length of a range; " + written
+                            + " != " + count);
+                }
+                return written;
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
+            }
+        });
+    }
+
+    /**
+     * Verifies given file against specified {@value #HEADER_ETAG}. Nothing is
+     * verified if the {@code etag} is not an MD5 hex, e.g. a quoted one of a
+     * large object.
+     *
+     * @param path the file
+     * @param etag the {@value #HEADER_ETAG}; may be {@code null}
+     */
+    static void verify(final Path path, final String etag) {
+        if (etag == null || !etag.matches("[0-9a-fA-F]{32}")) {
+            logger.fine(() -> "not verifiable; etag: " + etag);
+            return;
+        }
+        final String md5;
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            md5 = md5(channel, 0L, channel.size());
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+        if (!md5.equalsIgnoreCase(etag)) {
+            throw new StorageClientException(
+                    "etag mismatch; " + md5 + " != " + etag);
+        }
+    }
+
+    /**
+     * Updates an object using the {@code PUT} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function1 a function for writing request entity on the request
+     * @param function2 a function to be applied with the server response
+     * @return the value the {@code function2} results.
+     */
+    public abstract <R> R updateObject(
+            String containerName, String objectName,
+            Map<String, List<Object>> params,
+            Map<String, List<Object>> headers,
+            Function<RequestType, ResponseType> function1,
+            Function<ResponseType, R> function2);
+
+    /**
+     * Updates an object asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function1 a function for writing request entity on the request
+     * @param function2 a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #updateObject(java.lang.String, java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function, java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> updateObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<RequestType, ResponseType> function1,
+            final Function<ResponseType, R> function2) {
+        return supplyAsync(
+                () -> updateObject(containerName, objectName, params, headers,
+                                   function1, function2),
+                getExecutor());
+    }
+
+    /**
+     * Updates an object with a region of given file channel using the
+     * {@code PUT} method. The request is sent with a {@code Content-Length} of
+     * {@code count}, rather than chunked, and the region is read with
+     * positional reads so that a channel can be shared by concurrent uploads.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param channel the channel to read
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results.
+     */
+    public abstract <R> R updateObject(
+            String containerName, String objectName,
+            Map<String, List<Object>> params,
+            Map<String, List<Object>> headers, FileChannel channel,
+            long position, long count, Function<ResponseType, R> function);
+
+    /**
+     * Updates an object with the content of given file using the {@code PUT}
+     * method.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param path the file
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results.
+     * @see #updateObject(java.lang.String, java.lang.String, java.util.Map,
+     * java.util.Map, java.nio.channels.FileChannel, long, long,
+     * java.util.function.Function)
+     */
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers, final Path path,
+            final Function<ResponseType, R> function) {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            return updateObject(containerName, objectName, params, headers,
+                                channel, 0L, channel.size(), function);
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+    }
+
+    /**
+     * Updates an object, as a Dynamic Large Object, with the content of given
+     * file. The file is split into segments of {@link #getSegmentSize()
+     * segmentSize} bytes which are uploaded concurrently, by at most
+     * {@link #getTransferParallelism() transferParallelism} tasks on the
+     * {@link #getExecutor() executor}, into the segment container. Each failed
+     * segment is retried at most {@link #getTransferRetries() transferRetries}
+     * times. A manifest object with {@value #HEADER_X_OBJECT_MANIFEST} of the
+     * {@link #objectManifest(java.lang.String, java.lang.String) encoded}
+     * segment container and prefix is put when all segments are uploaded.
+     * <p>
+     * Segments are named as
+     * {@code <objectName>/<lastModified>/<size>/<segmentSize>/<index>} so that
+     * segments of different versions of the file don't overwrite each other.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param headers request headers for the manifest; may be {@code null}
+     * @param path the file
+     * @param segmentContainerName the name of the container for segments
+     * @param function a function to be applied with the server response of the
+     * manifest
+     * @return the value the {@code function} results.
+     */
+    public <R> R updateObjectSegmented(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> headers, final Path path,
+            final String segmentContainerName,
+            final Function<ResponseType, R> function) {
+        return updateObjectSegmented(containerName, objectName, headers, path,
+                                     segmentContainerName, null, function);
+    }
+
+    /**
+     * Updates an object, as a Dynamic Large Object, with the content of given
+     * file recording each uploaded segment in specified journal file. When the
+     * journal already has records, e.g. of an interrupted previous upload of
+     * the same file, the segment container is listed and each segment whose
+     * size and {@value #HEADER_ETAG} match both the record and the listing is
+     * not uploaded again. The journal is deleted when the manifest is put.
+     * Neither the segments nor the manifest are {@link #isCompression()
+     * compressed}; the object is the concatenation of its segments and a
+     * listed size of a segment is compared with the region of the file.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param headers request headers for the manifest; may be {@code null}
+     * @param path the file
+     * @param segmentContainerName the name of the container for segments
+     * @param journal the journal file; {@code null} for no journaling
+     * @param function a function to be applied with the server response of the
+     * manifest
+     * @return the value the {@code function} results.
+     * @see #updateObjectSegmented(java.lang.String, java.lang.String,
+     * java.util.Map, java.nio.file.Path, java.lang.String,
+     * java.util.function.Function)
+     */
+    public <R> R updateObjectSegmented(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> headers, final Path path,
+            final String segmentContainerName, final Path journal,
+            final Function<ResponseType, R> function) {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            final long size = channel.size();
+            final long segmentSize = getSegmentSize();
+            final String prefix = segmentPrefix(
+                    objectName, Files.getLastModifiedTime(path).toMillis(),
+                    size, segmentSize);
+            updateContainer(segmentContainerName, null, null,
+                            expect("failed to create the segment container",
+                                   201, 202));
+            final Map<String, Journal.Record> records = journal == null
+                                                        ? new HashMap<>()
+                                                        : Journal.read(journal);
+            final Map<String, ObjectInfo> uploaded = new HashMap<>();
+            if (!records.isEmpty()) {
+                final Map<String, List<Object>> params = new HashMap<>();
+                params.put(QUERY_PARAM_PREFIX, singletonList(prefix));
+                iterateContainerObjectInfos(segmentContainerName, params, null,
+                                            this::getEntityStream)
+                        .forEachRemaining(i -> uploaded.put(i.getName(), i));
+            }
+            try (Journal appender = journal == null
+                                    ? null : new Journal(journal)) {
+                Parallel.run(getExecutor(), getTransferParallelism(),
+                             segmentCount(size, segmentSize), i -> {
+                    final long position = i * segmentSize;
+                    final long count = Math.min(segmentSize, size - position);
+                    final String segmentName = segmentName(prefix, i);
+                    final Journal.Record record = records.get(segmentName);
+                    final ObjectInfo info = uploaded.get(segmentName);
+                    if (record != null && info != null
+                        && record.size == count && info.getBytes() == count
+                        && record.etag.equalsIgnoreCase(info.getHash())) {
+                        return;
+                    }
+                    final String etag = Parallel.retry(
+                            getTransferRetries(), () -> updateObject(
+                                    segmentContainerName, segmentName, null,
+                                    identity(null), channel, position, count,
+                                    r -> {
+                                        expect("failed to upload "
+                                               + segmentName, 201).apply(r);
+                                        return getHeaderValue(r, HEADER_ETAG);
+                                    }));
+                    if (appender != null) {
+                        try {
+                            appender.append(new Journal.Record(
+                                    segmentName, count, etag));
+                        } catch (final IOException ioe) {
+                            throw new StorageClientException(ioe);
+                        }
+                    }
+                });
+            }
+            final Map<String, List<Object>> headers_ = identity(headers);
+            headers_.put(HEADER_X_OBJECT_MANIFEST,
+                         singletonList(objectManifest(segmentContainerName,
+                                                      prefix)));
+            final R result = updateObject(containerName, objectName, null,
+                                          headers_, channel, 0L, 0L, function);
+            if (journal != null) {
+                Files.deleteIfExists(journal);
+            }
+            return result;
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+    }
+
+    /**
+     * Uploads regular files of a directory tree. The tree is walked by tasks
+     * on given pool, a task for each directory and for each file, so that idle
+     * workers steal uploads from busy ones. A file is uploaded with a fixed
+     * length or, if larger than the {@link #getSegmentSize() segmentSize},
+     * segmented into specified segment container. A failed upload is retried
+     * at most {@link #getTransferRetries() transferRetries} times, resuming
+     * with a journal so that uploaded segments are not put again, and a file
+     * still failing stops the upload; files not yet started are not uploaded.
+     * Tasks block on network so use a pool with a parallelism larger than the
+     * number of processors, e.g. {@code new ForkJoinPool(32)}.
+     *
+     * @param directory the root directory of the tree
+     * @param containerName the container name
+     * @param mapper a function maps the relative path of a file, separated by
+     * {@code /}, to an object name; it may result {@code null} for skipping
+     * the file
+     * @param segmentContainerName the name of the container for segments of
+     * large files
+     * @param pool the pool
+     * @param progress a thread-safe consumer accepts the object name and the
+     * size of each file uploaded; may be {@code null}
+     * @return a summary of the upload
+     */
+    public UploadSummary updateObjects(final Path directory,
+                                       final String containerName,
+                                       final Function<String, String> mapper,
+                                       final String segmentContainerName,
+                                       final ForkJoinPool pool,
+                                       final ObjLongConsumer<String> progress) {
+        requireNonNull(mapper, "null mapper");
+        requireNonNull(pool, "null pool");
+        final long started = currentTimeMillis();
+        final AtomicLong files = new AtomicLong();
+        final long bytes = pool.invoke(new TreeUpload(directory, path -> {
+            final StringBuilder relative = new StringBuilder();
+            for (final Path name : directory.relativize(path)) {
+                if (relative.length() > 0) {
+                    relative.append('/');
+                }
+                relative.append(name);
+            }
+            final String objectName = mapper.apply(relative.toString());
+            if (objectName == null) {
+                return 0L;
+            }
+            final long size;
+            try {
+                size = Files.size(path);
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
+            }
+            final Function<ResponseType, Integer> expected
+                    = expect("failed to upload " + path, 201);
+            if (size > getSegmentSize()) {
+                // a retry resumes; only segments not uploaded are put
+                final Path journal;
+                try {
+                    journal = Files.createTempFile(null, ".journal");
+                } catch (final IOException ioe) {
+                    throw new StorageClientException(ioe);
+                }
+                try {
+                    Parallel.retry(getTransferRetries(),
+                                   () -> updateObjectSegmented(
+                                           containerName, objectName, null,
+                                           path, segmentContainerName,
+                                           journal, expected));
+                } finally {
+                    try {
+                        Files.deleteIfExists(journal);
+                    } catch (final IOException ioe) {
+                        logger.log(WARNING, "failed to delete " + journal, ioe);
+                    }
+                }
+            } else {
+                Parallel.retry(getTransferRetries(), () -> updateObject(
+                               containerName, objectName, null, null, path,
+                               expected));
+            }
+            files.incrementAndGet();
+            if (progress != null) {
+                progress.accept(objectName, size);
+            }
+            return size;
+        }));
+        return new UploadSummary(files.get(), bytes,
+                                 currentTimeMillis() - started);
+    }
+
+    // ------------------------------------------ /storage/container/object/copy
+    /**
+     * Copies an object on the server side using the {@code PUT} method with
+     * {@value #HEADER_X_COPY_FROM}. No byte of the object passes through this
+     * client.
+     *
+     * @param <R> result type parameter
+     * @param sourceContainerName the container name of the source object
+     * @param sourceObjectName the name of the source object
+     * @param containerName the container name of the destination object
+     * @param objectName the name of the destination object
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results.
+     */
+    public abstract <R> R copyObject(String sourceContainerName,
+                                     String sourceObjectName,
+                                     String containerName, String objectName,
+                                     Map<String, List<Object>> headers,
+                                     Function<ResponseType, R> function);
+
+    /**
+     * Copies objects of a container, optionally only those with a prefix, on
+     * the server side. The source container is listed lazily and each object
+     * is copied with
+     * {@link #copyObject(java.lang.String, java.lang.String, java.lang.String,
+     * java.lang.String, java.util.Map, java.util.function.Function)} by at
+     * most {@link #getTransferParallelism() transferParallelism} workers on
+     * the {@link #getExecutor() executor}. A failed copy is retried at most
+     * {@link #getTransferRetries() transferRetries} times and the whole
+     * operation fails fast once any copy fails after its retries.
+     *
+     * @param sourceContainerName the container name of the source objects
+     * @param prefix a prefix of the source object names; may be {@code null}
+     * @param containerName the container name of the destination objects
+     * @param mapper a function maps a source object name to a destination
+     * object name; it may result {@code null} for skipping the object
+     * @param progress a consumer accepts each copied source object name with
+     * the number of objects copied so far; may be {@code null}
+     * @return the number of objects copied
+     */
+    public long copyObjects(final String sourceContainerName,
+                            final String prefix, final String containerName,
+                            final Function<String, String> mapper,
+                            final ObjLongConsumer<String> progress) {
+        final Map<String, List<Object>> params = new HashMap<>();
+        if (prefix != null) {
+            params.put(QUERY_PARAM_PREFIX, singletonList(prefix));
+        }
+        final AtomicLong copied = new AtomicLong();
+        Parallel.each(getExecutor(), getTransferParallelism(),
+                      iterateContainerObjectInfos(sourceContainerName, params,
+                                                  null, this::getEntityStream),
+                      info -> {
+            final String sourceObjectName = info.getName();
+            final String objectName = mapper.apply(sourceObjectName);
+            if (objectName == null) {
+                return;
+            }
+            Parallel.retry(getTransferRetries(), () -> copyObject(
+                           sourceContainerName, sourceObjectName,
+                           containerName, objectName, null,
+                           expect("failed to copy " + sourceObjectName, 201)));
+            final long count = copied.incrementAndGet();
+            if (progress != null) {
+                progress.accept(sourceObjectName, count);
+            }
+        });
+        return copied.get();
+    }
+
+    // ------------------------------------- /storage/container/object/configure
+    public abstract <R> R configureObject(String containerName,
+                                          String objectName,
+                                          Map<String, List<Object>> params,
+                                          Map<String, List<Object>> headers,
+                                          Function<ResponseType, R> function);
+
+    /**
+     * Configures an object asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #configureObject(java.lang.String, java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> configureObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> configureObject(containerName, objectName, params,
+                                      headers, function),
+                getExecutor());
+    }
+
+    /**
+     * Deletes an object using {@code DELETE} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response.
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R deleteObject(String containerName,
+                                       String objectName,
+                                       Map<String, List<Object>> params,
+                                       Map<String, List<Object>> headers,
+                                       Function<ResponseType, R> function);
+
+    /**
+     * Deletes an object asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #deleteObject(java.lang.String, java.lang.String, java.util.Map,
+     * java.util.Map, java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> deleteObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> deleteObject(containerName, objectName, params, headers,
+                                   function),
+                getExecutor());
+    }
+
+    /**
+     * Deletes an object without any query parameters and request headers.
+     *
+     * @param <R> result type parameter
+     * @param containerName container name
+     * @param objectName object name
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public <R> R deleteObject(final String containerName,
+                              final String objectName,
+                              final Function<ResponseType, R> function) {
+        return deleteObject(containerName, objectName, null, null, function);
+    }
+
+    /**
+     * Deletes an object and returns the status code of the server response.
+     *
+     * @param containerName container name
+     * @param objectName object name
+     * @return the status code of the server response
+     */
+    public int deleteObject(final String containerName,
+                            final String objectName) {
+        return deleteObject(containerName, objectName, this::getStatusCode);
+    }
+
+    /**
+     * Deletes objects of a container, optionally only those with a prefix, and
+     * optionally the container itself. The container is listed lazily and each
+     * object is deleted by at most
+     * {@link #getTransferParallelism() transferParallelism} workers on the
+     * {@link #getExecutor() executor}, at most {@code permitsPerSecond}
+     * deletions per second in total, retries included. An object already
+     * gone, i.e. {@code 404}, is counted as missing rather than failed. A
+     * failed deletion is retried, with a backoff, at most
+     * {@link #getTransferRetries() transferRetries} times and the whole
+     * operation fails fast once any deletion fails after its retries. The
+     * container, which may still be listed as not empty for a while, i.e.
+     * {@code 409}, is retried likewise.
+     *
+     * @param containerName the container name
+     * @param prefix a prefix of the object names; may be {@code null}
+     * @param permitsPerSecond the maximum number of deletions per second;
+     * {@code 0} for unlimited
+     * @param deleteContainer a flag for deleting the container at the end;
+     * ignored if {@code prefix} is not {@code null}
+     * @return a summary of the deletion
+     */
+    public DeleteSummary deleteObjects(final String containerName,
+                                       final String prefix,
+                                       final int permitsPerSecond,
+                                       final boolean deleteContainer) {
+        final long started = currentTimeMillis();
+        final RateLimiter limiter = new RateLimiter(permitsPerSecond);
+        final Map<String, List<Object>> params = new HashMap<>();
+        if (prefix != null) {
+            params.put(QUERY_PARAM_PREFIX, singletonList(prefix));
+        }
+        final AtomicLong deleted = new AtomicLong();
+        final AtomicLong missing = new AtomicLong();
+        Parallel.each(getExecutor(), getTransferParallelism(),
+                      iterateContainerObjectInfos(containerName, params, null,
+                                                  this::getEntityStream),
+                      info -> {
+            final int statusCode = Parallel.retry(
+                    getTransferRetries(), () -> {
+                limiter.acquire(); // for each attempt
+                return deleteObject(
+                        containerName, info.getName(), null, null,
+                        expect("failed to delete " + info.getName(), 204,
+                               404));
+            });
+            (statusCode == 404 ? missing : deleted).incrementAndGet();
+        });
+        boolean containerDeleted = false;
+        if (deleteContainer && prefix == null) {
+            // 409 while the container listing lags behind the deletions
+            containerDeleted = Parallel.retry(
+                    getTransferRetries(), () -> deleteContainer(
+                            containerName, null, null,
+                            expect("failed to delete " + containerName, 204,
+                                   404))) == 204;
+        }
+        return new DeleteSummary(deleted.get(), missing.get(),
+                                 containerDeleted,
+                                 currentTimeMillis() - started);
+    }
+
+    // ---------------------------------------------------------------- /account
+    /**
+     * Reads account information.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers additional request headers; may be {@code null}
+     * @param function the function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R readAccount(
+            Map<String, List<Object>> params, Map<String, List<Object>> headers,
+            Function<ResponseType, R> function);
+
+    /**
+     * Reads account information asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #readAccount(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> readAccountAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(() -> readAccount(params, headers, function),
+                           getExecutor());
+    }
+
+    /**
+     * Reads account information without any query parameters and request
+     * headers.
+     *
+     * @param <R> result type parameter
+     * @param function the function to be applied with the server response
+     * @return the value the {@code function} results
+     * @see #readAccount(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> R readAccount(final Function<ResponseType, R> function) {
+        return readAccount(null, null, function);
+    }
+
+    // ----------------------------------------------------------- /account/user
+    /**
+     * Reads user information.
+     *
+     * @param <R> result type parameter
+     * @param userName username
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function the function to be applied with server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R readUser(String userName,
+                                   Map<String, List<Object>> params,
+                                   Map<String, List<Object>> headers,
+                                   Function<ResponseType, R> function);
+
+    /**
+     * Reads user information asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param userName user name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #readUser(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> readUserAsync(
+            final String userName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(() -> readUser(userName, params, headers, function),
+                           getExecutor());
+    }
+
+    /**
+     * Reads user information with any query parameter and additional request
+     * headers.
+     *
+     * @param <R> result type parameter
+     * @param userName user name
+     * @param function the function to be applied with the server response
+     * @return the value the {@code funtion} results
+     * @see #readUser(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> R readUser(final String userName,
+                          final Function<ResponseType, R> function) {
+        return readUser(userName, null, null, function);
+    }
+
+    public abstract <R> R updateUser(
+            final String userName, final String userKey,
+            final boolean userAdmin, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function);
+
+    /**
+     * Creates or updates a user asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param userName user name
+     * @param userKey user key
+     * @param userAdmin a flag for admin user
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #updateUser(java.lang.String, java.lang.String, boolean,
+     * java.util.Map, java.util.Map, java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> updateUserAsync(
+            final String userName, final String userKey,
+            final boolean userAdmin, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> updateUser(userName, userKey, userAdmin, params, headers,
+                                 function),
+                getExecutor());
+    }
+
+    /**
+     * Deletes a user using the {@code DELETE} method.
+     *
+     * @param <R> result type parameter
+     * @param userName user name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results
+     */
+    public abstract <R> R deleteUser(
+            String userName, Map<String, List<Object>> params,
+            Map<String, List<Object>> headers,
+            Function<ResponseType, R> function);
+
+    /**
+     * Deletes a user asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param userName user name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #deleteUser(java.lang.String, java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> deleteUserAsync(
+            final String userName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(
+                () -> deleteUser(userName, params, headers, function),
+                getExecutor());
+    }
+
+    /**
+     * Deletes a user without any query parameters and request headers.
+     *
+     * @param <R> result type parameter
+     * @param userName user name
+     * @param function a function to be applied with the server response
+     * @return the result the {@code function} results
+     */
+    public <R> R deleteUser(final String userName,
+                            final Function<ResponseType, R> function) {
+        return deleteUser(userName, null, null, function);
+    }
+
+    /**
+     * Deletes a user and returns the status code of the server response.
+     *
+     * @param userName user name
+     * @return the status code of the server response
+     */
+    public int deleteUser(final String userName) {
+        return deleteUser(userName, this::getStatusCode);
+    }
+
+    // -------------------------------------------------------- /account/.groups
+    public abstract <R> R readGroups(Map<String, List<Object>> params,
                                      Map<String, List<Object>> headers,
                                      Function<ResponseType, R> function);
 
     /**
-     * Updates an object using the {@code PUT} method.
+     * Reads groups asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the function results
+     * @see #readGroups(java.util.Map, java.util.Map,
+     * java.util.function.Function)
+     */
+    public <R> CompletableFuture<R> readGroupsAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<ResponseType, R> function) {
+        return supplyAsync(() -> readGroups(params, headers, function),
+                           getExecutor());
+    }
+
+    // ----------------------------------------------------------------- authUrl
+    /**
+     * Returns the {@code authUrl}.
+     *
+     * @return the {@code authUrl}. //@deprecated forRemoval = true
+     */
+//    @Deprecated//(forRemoval = true)
+    protected final String getAuthUrl() {
+        return authUrl;
+    }
+
+    // ---------------------------------------------------------------- authUser
+    /**
+     * Returns the {@code authUser}.
+     *
+     * @return the {@code authUser}. //@deprecated forRemoval = true
+     */
+//    @Deprecated//(forRemoval = true)
+    protected final String getAuthUser() {
+        return authUser;
+    }
+
+    // ----------------------------------------------------------------- authKey
+    /**
+     * Returns the {@code authKey}.
+     *
+     * @return the {@code authKey} //@deprecated forRemoval = true
+     */
+//    @Deprecated//(forRemoval = true)
+    protected final String getAuthKey() {
+        return authKey;
+    }
+
+    // ------------------------------------------------------------- accountName
+    protected final String getAccountName() {
+        return accountName;
+    }
+
+//    public final String accountName() {
+//        return getAccountName();
+//    }
+    // ----------------------------------------------------------------- session
+    /**
+     * Returns the current session. Requests should read the storage URL and
+     * the token from a single session, rather than with
+     * {@link #getStorageUrl()} and {@link #getAuthToken()}, so that they
+     * never pair a new token with an old storage URL, or vice versa, while
+     * another thread is authenticating.
+     *
+     * @return the current session
+     */
+    public final Session getSession() {
+        return session;
+    }
+
+    /**
+     * Publishes a new session of given authentication information at once.
+     *
+     * @param storageUrl the storage URL
+     * @param authToken the authorization token
+     * @param authTokenExpires the value of
+     * {@value #HEADER_X_AUTH_TOKEN_EXPIRES} header; may be {@code null}
+     */
+    protected final void setSession(final String storageUrl,
+                                    final String authToken,
+                                    final String authTokenExpires) {
+        requireNonNull(storageUrl, "null storageUrl");
+        final Session published = new Session(
+                storageUrl, accountUrl(storageUrl), authToken,
+                expires(authTokenExpires));
+        update(current -> published);
+    }
+
+    private String accountUrl(final String storageUrl) {
+        return storageUrl == null || accountName == null
+               ? null : accountUrl(storageUrl, accountName);
+    }
+
+    private static long expires(final String authTokenExpires) {
+        return ofNullable(authTokenExpires)
+                .map(Integer::parseInt)
+                .map(SECONDS::toMillis)
+                .map(v -> currentTimeMillis() + v)
+                .orElse(-1L);
+    }
+
+    /**
+     * Replaces the session with the one given operator results with the
+     * current one. Every write of the session is made with this method so
+     * that no write is lost between a read and a write of another.
+     *
+     * @param operator the operator
+     */
+    private synchronized void update(final UnaryOperator<Session> operator) {
+        session = operator.apply(session);
+    }
+
+    // -------------------------------------------------------------- storageUrl
+    /**
+     * Returns the storage URL.
+     *
+     * @return the storage URL
+     */
+    protected final String getStorageUrl() {
+        return session.getStorageUrl();
+    }
+
+//    protected String storageUrl() {
+//        return getStorageUrl();
+//    }
+    protected final void setStorageUrl(final String storageUrl) {
+        requireNonNull(storageUrl, "null storageUrl");
+        update(current -> new Session(
+                storageUrl, accountUrl(storageUrl), current.getAuthToken(),
+                current.getAuthTokenExpiresMillis()));
+    }
+
+//    protected StorageClient storegeUrl(final String storageUrl) {
+//        setStorageUrl(storageUrl);
+//        return this;
+//    }
+    // -------------------------------------------------------------- accountUrl
+    protected final String getAccountUrl() {
+        return session.getAccountUrl();
+    }
+
+//    protected String accountUrl() {
+//        return getAccountUrl();
+//    }
+    // --------------------------------------------------------------- authToken
+    /**
+     * Returns the authorization token.
+     *
+     * @return the authorization token.
+     */
+    protected final String getAuthToken() {
+        return session.getAuthToken();
+    }
+
+    protected final void setAuthToken(final String authToken) {
+        update(current -> new Session(
+                current.getStorageUrl(), current.getAccountUrl(), authToken,
+                current.getAuthTokenExpiresMillis()));
+    }
+
+    // ------------------------------------------------------------ tokenExpires
+    /**
+     * Return the date the authorization token expires.
+     *
+     * @return the date the authorization token expires.
+     */
+    public final Date getAuthTokenExpires() {
+        return session.getAuthTokenExpires();
+    }
+
+    protected final void setAuthTokenExpires(final Date authTokenExpires) {
+        final long expires
+                = ofNullable(authTokenExpires).map(Date::getTime).orElse(-1L);
+        update(current -> new Session(
+                current.getStorageUrl(), current.getAccountUrl(),
+                current.getAuthToken(), expires));
+    }
+
+    protected final void setAuthTokenExpires(final String authTokenExpires) {
+        setAuthTokenExpires(
+                ofNullable(authTokenExpires)
+                .map(Integer::parseInt)
+                .map(SECONDS::toMillis)
+                .map(v -> new Date(currentTimeMillis() + v))
+                .orElse(null)
+        );
+    }
+
+    // -------------------------------------------------------- reauthentication
+    /**
+     * Returns whether requests responded with {@code 401} are re-authenticated
+     * and replayed. The default value is {@code true}.
+     *
+     * @return {@code true} if the reauthentication is on; {@code false}
+     * otherwise
+     */
+    public boolean isReauthentication() {
+        return reauthentication;
+    }
+
+    /**
+     * Sets whether requests responded with {@code 401} are re-authenticated
+     * and replayed. Only requests whose entities, if any, can be written
+     * again, e.g. from file channels, are replayed; requests with entities
+     * written by callers are not.
+     *
+     * @param reauthentication new value
+     */
+    public void setReauthentication(final boolean reauthentication) {
+        this.reauthentication = reauthentication;
+    }
+
+    public T reauthentication(final boolean reauthentication) {
+        setReauthentication(reauthentication);
+        return (T) this;
+    }
+
+    // --------------------------------------------------------------- tokenFile
+    /**
+     * Returns the path to the file in which sessions are stored. The default
+     * value is {@code null}.
+     *
+     * @return the path to the token file; may be {@code null}
+     * @see #authenticateUserCached(java.util.concurrent.TimeUnit, long)
+     */
+    public Path getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Replaces the path to the file in which sessions are stored. Sessions of
+     * {@link #refreshToken() refreshed} tokens are stored as well. Note that
+     * the file contains tokens in plain text; it is created readable and
+     * writable only by the owner where POSIX permissions are supported.
+     *
+     * @param tokenFile new value; {@code null} for disabling
+     */
+    public void setTokenFile(final Path tokenFile) {
+        this.tokenFile = tokenFile;
+    }
+
+    public T tokenFile(final Path tokenFile) {
+        setTokenFile(tokenFile);
+        return (T) this;
+    }
+
+    // ---------------------------------------------------------------- executor
+    /**
+     * Returns the executor with which operations of {@code ...Async} methods
+     * are executed. The default value is an executor, shared by all clients,
+     * of daemon threads created as needed; blocking requests are never run on
+     * {@link ForkJoinPool#commonPool()} unless set explicitly.
+     *
+     * @return the executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Replaces the executor with which operations of {@code ...Async} methods
+     * are executed. Note that this client doesn't shut down the executor.
+     *
+     * @param executor new executor
+     */
+    public void setExecutor(final Executor executor) {
+        this.executor = requireNonNull(executor, "null executor");
+    }
+
+    public T executor(final Executor executor) {
+        setExecutor(executor);
+        return (T) this;
+    }
+
+    // ----------------------------------------------------------------- metrics
+    /**
+     * Returns the metrics to which responses of this client are recorded.
+     * The default value is {@code null}.
+     *
+     * @return the metrics or {@code null} if not set
+     */
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Replaces the metrics to which responses of this client are recorded.
+     * Clients sharing an instance share the counts, whatever their transports
+     * are.
+     *
+     * @param metrics new metrics; may be {@code null}
+     * @see StorageClientRegistry
+     */
+    public void setMetrics(final StorageMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public T metrics(final StorageMetrics metrics) {
+        setMetrics(metrics);
+        return (T) this;
+    }
+
+    // --------------------------------------------------------------- listLimit
+    /**
+     * Returns the number of names to be read in each page while listing names
+     * unless {@link #QUERY_PARAM_LIMIT} is specified. The default value is
+     * {@value #LIST_LIMIT}.
+     *
+     * @return the number of names in each page
+     */
+    public int getListLimit() {
+        return listLimit;
+    }
+
+    /**
+     * Replaces the number of names to be read in each page while listing names.
+     * Larger pages take less round trips.
+     *
+     * @param listLimit new value; must be positive
+     */
+    public void setListLimit(final int listLimit) {
+        if (listLimit <= 0) {
+            throw new IllegalArgumentException(
+                    "listLimit(" + listLimit + ") <= 0");
+        }
+        this.listLimit = listLimit;
+    }
+
+    public T listLimit(final int listLimit) {
+        setListLimit(listLimit);
+        return (T) this;
+    }
+
+    // ------------------------------------------------------------ listPrefetch
+    /**
+     * Returns the maximum number of pages to be read ahead, with the
+     * {@link #getExecutor() executor}, while listing names. The default value
+     * is {@code 0} which means pages are read only when required.
+     *
+     * @return the maximum number of pages to be read ahead
+     */
+    public int getListPrefetch() {
+        return listPrefetch;
+    }
+
+    /**
+     * Replaces the maximum number of pages to be read ahead while listing
+     * names.
+     *
+     * @param listPrefetch new value; {@code 0} for disabling
+     */
+    public void setListPrefetch(final int listPrefetch) {
+        if (listPrefetch < 0) {
+            throw new IllegalArgumentException(
+                    "listPrefetch(" + listPrefetch + ") < 0");
+        }
+        this.listPrefetch = listPrefetch;
+    }
+
+    public T listPrefetch(final int listPrefetch) {
+        setListPrefetch(listPrefetch);
+        return (T) this;
+    }
+
+    // ------------------------------------------------------ uploadVerification
+    /**
+     * Returns whether uploads from file channels are verified. The default
+     * value is {@code false}.
+     *
+     * @return {@code true} if uploads are verified; {@code false} otherwise
+     */
+    public boolean isUploadVerification() {
+        return uploadVerification;
+    }
+
+    /**
+     * Sets whether uploads from file channels are verified. When on, an MD5
+     * digest is computed as the bytes are sent and compared with the
+     * {@value #HEADER_ETAG} of the response; no extra pass over the file is
+     * required. When the request headers already have an
+     * {@value #HEADER_ETAG}, e.g. precomputed, no digest is computed and the
+     * server rejects a mismatched upload.
+     *
+     * @param uploadVerification new value
+     */
+    public void setUploadVerification(final boolean uploadVerification) {
+        this.uploadVerification = uploadVerification;
+    }
+
+    public T uploadVerification(final boolean uploadVerification) {
+        setUploadVerification(uploadVerification);
+        return (T) this;
+    }
+
+    // ------------------------------------------------------------- compression
+    /**
+     * Returns whether the compression is on. The default value is
+     * {@code false}.
      *
-     * @param <R> result type parameter
-     * @param containerName a container name
-     * @param objectName an object name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function1 a function for writing request entity on the request
-     * @param function2 a function to be applied with the server response
-     * @return the value the {@code function2} results.
+     * @return {@code true} if the compression is on; {@code false} otherwise
      */
-    public abstract <R> R updateObject(
-            String containerName, String objectName,
-            Map<String, List<Object>> params,
-            Map<String, List<Object>> headers,
-            Function<RequestType, ResponseType> function1,
-            Function<ResponseType, R> function2);
-
-    // ------------------------------------- /storage/container/object/configure
-    public abstract <R> R configureObject(String containerName,
-                                          String objectName,
-                                          Map<String, List<Object>> params,
-                                          Map<String, List<Object>> headers,
-                                          Function<ResponseType, R> function);
+    public boolean isCompression() {
+        return compression;
+    }
 
     /**
-     * Deletes an object using {@code DELETE} method.
+     * Sets whether the compression is on. When on, uploads from file channels
+     * are gzip compressed as they are sent, in chunks, with
+     * {@code Content-Encoding: gzip} unless the request headers already have a
+     * {@value #HEADER_CONTENT_ENCODING}, and
+     * {@link #getEntityStream(java.lang.Object)} decodes gzip encoded entities
+     * as they are read. Note that the {@value #HEADER_ETAG} of a compressed
+     * upload is of the compressed bytes and ranged reads are of the compressed
+     * bytes as well.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param objectName object name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response.
-     * @return the value the {@code function} results
+     * @param compression new value
      */
-    public abstract <R> R deleteObject(String containerName,
-                                       String objectName,
-                                       Map<String, List<Object>> params,
-                                       Map<String, List<Object>> headers,
-                                       Function<ResponseType, R> function);
+    public void setCompression(final boolean compression) {
+        this.compression = compression;
+    }
+
+    public T compression(final boolean compression) {
+        setCompression(compression);
+        return (T) this;
+    }
 
+    // ------------------------------------------------------------- segmentSize
     /**
-     * Deletes an object without any query parameters and request headers.
+     * Returns the size of each segment of segmented uploads. The default value
+     * is {@value #SEGMENT_SIZE}.
      *
-     * @param <R> result type parameter
-     * @param containerName container name
-     * @param objectName object name
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @return the size of each segment
      */
-    public <R> R deleteObject(final String containerName,
-                              final String objectName,
-                              final Function<ResponseType, R> function) {
-        return deleteObject(containerName, objectName, null, null, function);
+    public long getSegmentSize() {
+        return segmentSize;
     }
 
     /**
-     * Deletes an object and returns the status code of the server response.
+     * Replaces the size of each segment of segmented uploads.
      *
-     * @param containerName container name
-     * @param objectName object name
-     * @return the status code of the server response
+     * @param segmentSize new value; must be positive
      */
-    public int deleteObject(final String containerName,
-                            final String objectName) {
-        return deleteObject(containerName, objectName, this::getStatusCode);
+    public void setSegmentSize(final long segmentSize) {
+        if (segmentSize <= 0L) {
+            throw new IllegalArgumentException(
+                    "segmentSize(" + segmentSize + ") <= 0");
+        }
+        this.segmentSize = segmentSize;
     }
 
-    // ---------------------------------------------------------------- /account
+    public T segmentSize(final long segmentSize) {
+        setSegmentSize(segmentSize);
+        return (T) this;
+    }
+
+    // ----------------------------------------------------- transferParallelism
     /**
-     * Reads account information.
+     * Returns the maximum number of concurrent requests of a parallel
+     * transfer. The default value is {@value #TRANSFER_PARALLELISM}.
      *
-     * @param <R> result type parameter
-     * @param params query parameters; may be {@code null}
-     * @param headers additional request headers; may be {@code null}
-     * @param function the function to be applied with the server response
-     * @return the value the {@code function} results
+     * @return the maximum number of concurrent requests
      */
-    public abstract <R> R readAccount(
-            Map<String, List<Object>> params, Map<String, List<Object>> headers,
-            Function<ResponseType, R> function);
+    public int getTransferParallelism() {
+        return transferParallelism;
+    }
 
     /**
-     * Reads account information without any query parameters and request
-     * headers.
+     * Replaces the maximum number of concurrent requests of a parallel
+     * transfer. Note that the parallelism is also bounded by the
+     * {@link #getExecutor() executor}.
      *
-     * @param <R> result type parameter
-     * @param function the function to be applied with the server response
-     * @return the value the {@code function} results
-     * @see #readAccount(java.util.Map, java.util.Map,
-     * java.util.function.Function)
+     * @param transferParallelism new value; must be positive
      */
-    public <R> R readAccount(final Function<ResponseType, R> function) {
-        return readAccount(null, null, function);
+    public void setTransferParallelism(final int transferParallelism) {
+        if (transferParallelism <= 0) {
+            throw new IllegalArgumentException(
+                    "transferParallelism(" + transferParallelism + ") <= 0");
+        }
+        this.transferParallelism = transferParallelism;
     }
 
-    // ----------------------------------------------------------- /account/user
+    public T transferParallelism(final int transferParallelism) {
+        setTransferParallelism(transferParallelism);
+        return (T) this;
+    }
+
+    // ---------------------------------------------------------------- partSize
     /**
-     * Reads user information.
+     * Returns the size of each part of ranged downloads. The default value is
+     * {@value #PART_SIZE}.
      *
-     * @param <R> result type parameter
-     * @param userName username
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function the function to be applied with server response
-     * @return the value the {@code function} results
+     * @return the size of each part
      */
-    public abstract <R> R readUser(String userName,
-                                   Map<String, List<Object>> params,
-                                   Map<String, List<Object>> headers,
-                                   Function<ResponseType, R> function);
+    public long getPartSize() {
+        return partSize;
+    }
 
     /**
-     * Reads user information with any query parameter and additional request
-     * headers.
+     * Replaces the size of each part of ranged downloads.
      *
-     * @param <R> result type parameter
-     * @param userName user name
-     * @param function the function to be applied with the server response
-     * @return the value the {@code funtion} results
-     * @see #readUser(java.lang.String, java.util.Map, java.util.Map,
-     * java.util.function.Function)
+     * @param partSize new value; must be positive
      */
-    public <R> R readUser(final String userName,
-                          final Function<ResponseType, R> function) {
-        return readUser(userName, null, null, function);
+    public void setPartSize(final long partSize) {
+        if (partSize <= 0L) {
+            throw new IllegalArgumentException(
+                    "partSize(" + partSize + ") <= 0");
+        }
+        this.partSize = partSize;
     }
 
-    public abstract <R> R updateUser(
-            final String userName, final String userKey,
-            final boolean userAdmin, final Map<String, List<Object>> params,
-            final Map<String, List<Object>> headers,
-            final Function<ResponseType, R> function);
+    public T partSize(final long partSize) {
+        setPartSize(partSize);
+        return (T) this;
+    }
 
+    // --------------------------------------------------------- transferRetries
     /**
-     * Deletes a user using the {@code DELETE} method.
+     * Returns the maximum number of retries for each part of a parallel
+     * transfer. The default value is {@value #TRANSFER_RETRIES}.
      *
-     * @param <R> result type parameter
-     * @param userName user name
-     * @param params query parameters; may be {@code null}
-     * @param headers request headers; may be {@code null}
-     * @param function a function to be applied with the server response
-     * @return the value the {@code function} results
+     * @return the maximum number of retries
      */
-    public abstract <R> R deleteUser(
-            String userName, Map<String, List<Object>> params,
-            Map<String, List<Object>> headers,
-            Function<ResponseType, R> function);
+    public int getTransferRetries() {
+        return transferRetries;
+    }
 
     /**
-     * Deletes a user without any query parameters and request headers.
+     * Replaces the maximum number of retries for each part of a parallel
+     * transfer.
      *
-     * @param <R> result type parameter
-     * @param userName user name
-     * @param function a function to be applied with the server response
-     * @return the result the {@code function} results
+     * @param transferRetries new value; {@code 0} for no retry
      */
-    public <R> R deleteUser(final String userName,
-                            final Function<ResponseType, R> function) {
-        return deleteUser(userName, null, null, function);
+    public void setTransferRetries(final int transferRetries) {
+        if (transferRetries < 0) {
+            throw new IllegalArgumentException(
+                    "transferRetries(" + transferRetries + ") < 0");
+        }
+        this.transferRetries = transferRetries;
     }
 
+    public T transferRetries(final int transferRetries) {
+        setTransferRetries(transferRetries);
+        return (T) this;
+    }
+
+    // ----------------------------------------------------- objectCacheCapacity
     /**
-     * Deletes a user and returns the status code of the server response.
+     * Returns the maximum number of bytes of bodies cached for
+     * {@link #readObjectCached(java.lang.String, java.lang.String,
+     * java.util.Map, java.util.Map)}. The default value is {@code 0L} which
+     * means no caching.
      *
-     * @param userName user name
-     * @return the status code of the server response
+     * @return the maximum number of bytes of cached bodies
      */
-    public int deleteUser(final String userName) {
-        return deleteUser(userName, this::getStatusCode);
+    public long getObjectCacheCapacity() {
+        return objectCacheCapacity;
     }
 
-    // -------------------------------------------------------- /account/.groups
-    public abstract <R> R readGroups(Map<String, List<Object>> params,
-                                     Map<String, List<Object>> headers,
-                                     Function<ResponseType, R> function);
-
-    // ----------------------------------------------------------------- authUrl
     /**
-     * Returns the {@code authUrl}.
+     * Replaces the maximum number of bytes of cached bodies. Any cached body
+     * is discarded.
      *
-     * @return the {@code authUrl}. //@deprecated forRemoval = true
+     * @param objectCacheCapacity new value; {@code 0L} for no caching
      */
-//    @Deprecated//(forRemoval = true)
-    protected final String getAuthUrl() {
-        return authUrl;
+    public synchronized void setObjectCacheCapacity(
+            final long objectCacheCapacity) {
+        if (objectCacheCapacity < 0L) {
+            throw new IllegalArgumentException(
+                    "objectCacheCapacity(" + objectCacheCapacity + ") < 0L");
+        }
+        this.objectCacheCapacity = objectCacheCapacity;
+        objectCache = objectCacheCapacity == 0L
+                      ? null
+                      : new ObjectCache(objectCacheCapacity,
+                                        objectCacheAccessOrder);
     }
 
-    // ---------------------------------------------------------------- authUser
+    public T objectCacheCapacity(final long objectCacheCapacity) {
+        setObjectCacheCapacity(objectCacheCapacity);
+        return (T) this;
+    }
+
+    // -------------------------------------------------- objectCacheAccessOrder
     /**
-     * Returns the {@code authUser}.
+     * Returns the eviction order of cached bodies. The default value is
+     * {@code true}.
      *
-     * @return the {@code authUser}. //@deprecated forRemoval = true
+     * @return {@code true} if the least recently accessed body is evicted
+     * first; {@code false} if the eldest cached body is evicted first
      */
-//    @Deprecated//(forRemoval = true)
-    protected final String getAuthUser() {
-        return authUser;
+    public boolean isObjectCacheAccessOrder() {
+        return objectCacheAccessOrder;
     }
 
-    // ----------------------------------------------------------------- authKey
     /**
-     * Returns the {@code authKey}.
+     * Replaces the eviction order of cached bodies. Any cached body is
+     * discarded.
      *
-     * @return the {@code authKey} //@deprecated forRemoval = true
+     * @param objectCacheAccessOrder {@code true} for least recently used;
+     * {@code false} for first in, first out
      */
-//    @Deprecated//(forRemoval = true)
-    protected final String getAuthKey() {
-        return authKey;
+    public synchronized void setObjectCacheAccessOrder(
+            final boolean objectCacheAccessOrder) {
+        this.objectCacheAccessOrder = objectCacheAccessOrder;
+        setObjectCacheCapacity(objectCacheCapacity);
     }
 
-    // ------------------------------------------------------------- accountName
-    protected final String getAccountName() {
-        return accountName;
+    public T objectCacheAccessOrder(final boolean objectCacheAccessOrder) {
+        setObjectCacheAccessOrder(objectCacheAccessOrder);
+        return (T) this;
     }
 
-//    public final String accountName() {
-//        return getAccountName();
-//    }
-    // -------------------------------------------------------------- storageUrl
+    // ------------------------------------------------------ storageMetadataTtl
     /**
-     * Returns the storage URL.
+     * Returns the time-to-live, in milliseconds, of cached storage metadata.
+     * The default value is {@code 0L} which means no caching.
      *
-     * @return the storage URL
+     * @return the time-to-live in milliseconds
      */
-    protected final String getStorageUrl() {
-        return storageUrl;
+    public long getStorageMetadataTtl() {
+        return storageMetadataTtl;
     }
 
-//    protected String storageUrl() {
-//        return getStorageUrl();
-//    }
-    protected final void setStorageUrl(final String storageUrl) {
-        this.storageUrl = requireNonNull(storageUrl, "null storageUrl");
-        if (accountName != null) {
-            accountUrl = accountUrl(storageUrl, accountName);
+    /**
+     * Replaces the time-to-live, in milliseconds, of cached storage metadata.
+     * Any cached metadata is discarded.
+     *
+     * @param storageMetadataTtl new value; {@code 0L} for no caching
+     */
+    public void setStorageMetadataTtl(final long storageMetadataTtl) {
+        if (storageMetadataTtl < 0L) {
+            throw new IllegalArgumentException(
+                    "storageMetadataTtl(" + storageMetadataTtl + ") < 0L");
         }
+        this.storageMetadataTtl = storageMetadataTtl;
+        metadataCache.clear();
     }
 
-//    protected StorageClient storegeUrl(final String storageUrl) {
-//        setStorageUrl(storageUrl);
-//        return this;
-//    }
-    // -------------------------------------------------------------- accountUrl
-    protected final String getAccountUrl() {
-        return accountUrl;
+    public T storageMetadataTtl(final long storageMetadataTtl) {
+        setStorageMetadataTtl(storageMetadataTtl);
+        return (T) this;
     }
 
-//    protected String accountUrl() {
-//        return getAccountUrl();
-//    }
-    // --------------------------------------------------------------- authToken
+    // ---------------------------------------------------- containerMetadataTtl
     /**
-     * Returns the authorization token.
+     * Returns the time-to-live, in milliseconds, of cached container metadata.
+     * The default value is {@code 0L} which means no caching.
      *
-     * @return the authorization token.
+     * @return the time-to-live in milliseconds
      */
-    protected final String getAuthToken() {
-        return authToken;
+    public long getContainerMetadataTtl() {
+        return containerMetadataTtl;
     }
 
-    protected final void setAuthToken(final String authToken) {
-        this.authToken = authToken;
+    /**
+     * Replaces the time-to-live, in milliseconds, of cached container metadata.
+     * Any cached metadata is discarded.
+     *
+     * @param containerMetadataTtl new value; {@code 0L} for no caching
+     */
+    public void setContainerMetadataTtl(final long containerMetadataTtl) {
+        if (containerMetadataTtl < 0L) {
+            throw new IllegalArgumentException(
+                    "containerMetadataTtl(" + containerMetadataTtl + ") < 0L");
+        }
+        this.containerMetadataTtl = containerMetadataTtl;
+        metadataCache.clear();
     }
 
-    // ------------------------------------------------------------ tokenExpires
+    public T containerMetadataTtl(final long containerMetadataTtl) {
+        setContainerMetadataTtl(containerMetadataTtl);
+        return (T) this;
+    }
+
+    // ------------------------------------------------------- objectMetadataTtl
     /**
-     * Return the date the authorization token expires.
+     * Returns the time-to-live, in milliseconds, of cached object metadata.
+     * The default value is {@code 0L} which means no caching.
      *
-     * @return the date the authorization token expires.
+     * @return the time-to-live in milliseconds
      */
-    public final Date getAuthTokenExpires() {
-        if (authTokenExpires == null) {
-            return null;
+    public long getObjectMetadataTtl() {
+        return objectMetadataTtl;
+    }
+
+    /**
+     * Replaces the time-to-live, in milliseconds, of cached object metadata.
+     * Any cached metadata is discarded.
+     *
+     * @param objectMetadataTtl new value; {@code 0L} for no caching
+     */
+    public void setObjectMetadataTtl(final long objectMetadataTtl) {
+        if (objectMetadataTtl < 0L) {
+            throw new IllegalArgumentException(
+                    "objectMetadataTtl(" + objectMetadataTtl + ") < 0L");
         }
-        return new Date(authTokenExpires.getTime());
+        this.objectMetadataTtl = objectMetadataTtl;
+        metadataCache.clear();
     }
 
-    protected final void setAuthTokenExpires(final Date authTokenExpires) {
-        this.authTokenExpires
-                = ofNullable(authTokenExpires)
-                .map(Date::getTime)
-                .map(Date::new)
-                .orElse(null);
+    public T objectMetadataTtl(final long objectMetadataTtl) {
+        setObjectMetadataTtl(objectMetadataTtl);
+        return (T) this;
     }
 
-    protected final void setAuthTokenExpires(final String authTokenExpires) {
-        setAuthTokenExpires(
-                ofNullable(authTokenExpires)
-                .map(Integer::parseInt)
-                .map(SECONDS::toMillis)
-                .map(v -> new Date(currentTimeMillis() + v))
-                .orElse(null)
-        );
+    // -------------------------------------------------------------------------
+    /**
+     * Closes this client and releases any resources, such as pooled
+     * connections, held by this client. The default implementation stops
+     * refreshing the token.
+     */
+    @Override
+    public void close() {
+        stopTokenRefresh();
     }
 
     // -------------------------------------------------------------------------
@@ -992,11 +4152,49 @@ public abstract class StorageClient<T extends StorageClient<T, RequestType, Resp
 
     private final String accountName;
 
-    private transient String storageUrl;
+    private transient volatile Session session = Session.EMPTY;
+
+    private volatile boolean reauthentication = true;
+
+    private transient volatile Path tokenFile;
+
+    private volatile Executor executor = EXECUTOR;
+
+    private volatile StorageMetrics metrics;
+
+    private volatile int listLimit = LIST_LIMIT;
+
+    private volatile int listPrefetch;
+
+    private volatile boolean uploadVerification;
+
+    private volatile boolean compression;
+
+    private volatile long segmentSize = SEGMENT_SIZE;
+
+    private volatile long partSize = PART_SIZE;
+
+    private volatile int transferParallelism = TRANSFER_PARALLELISM;
+
+    private volatile int transferRetries = TRANSFER_RETRIES;
+
+    private volatile long objectCacheCapacity;
+
+    private volatile boolean objectCacheAccessOrder = true;
+
+    private volatile ObjectCache objectCache;
+
+    private volatile long storageMetadataTtl;
+
+    private volatile long containerMetadataTtl;
+
+    private volatile long objectMetadataTtl;
 
-    private transient String accountUrl;
+    private final MetadataCache metadataCache = new MetadataCache();
 
-    private transient String authToken;
+    private final AtomicReference<CompletableFuture<Integer>> refreshing
+            = new AtomicReference<>();
 
-    private transient Date authTokenExpires;
+    private final AtomicReference<TokenRefresh> tokenRefresh
+            = new AtomicReference<>();
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+/**
+ * A registry of clients of multiple accounts. Clients are created, one for
+ * each user, by a factory which is expected to share a single transport
+ * across them, e.g. a
+ * {@link com.github.jinahya.kt.ucloud.storage.client.net.NetTransport}, a
+ * {@code javax.ws.rs.client.Client} or a {@code java.net.http.HttpClient},
+ * so that connections are shared whereas the authentication state is kept
+ * for each user. Clients are also given a single executor and a single
+ * {@link #getMetrics() metrics}.
+ * <p>
+ * Clients are never closed by this registry, for other threads may still be
+ * using them and closing one, e.g. a {@code StorageClientWsRs}, may close
+ * the transport of every user. A client replaced or removed merely stops
+ * {@link StorageClient#stopTokenRefresh() refreshing} its token. The shared
+ * transport is owned by the registry if given to
+ * {@link #StorageClientRegistry(BiFunction, Executor, AutoCloseable)} and
+ * closed with the registry.
+ * <blockquote><pre>{@code
+ * final Client shared = ClientBuilder.newClient();
+ * final StorageClientRegistry<StorageClientWsRs> registry
+ *         = new StorageClientRegistry<>(
+ *                 (u, k) -> new StorageClientWsRs(authUrl, u, k)
+ *                         .sharedClient(shared),
+ *                 executor, shared::close);
+ * registry.get(authUser, authKey).readStorage(...);
+ * registry.getMetrics().getResponseCount(); // of all accounts
+ * }</pre></blockquote>
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @param <C> client type parameter
+ */
+public class StorageClientRegistry<C extends StorageClient<?, ?, ?>>
+        implements AutoCloseable {
+
+    /**
+     * Creates a new instance.
+     *
+     * @param factory a function creates a client with a user name and a key
+     * @param executor the executor to be shared by clients
+     */
+    public StorageClientRegistry(
+            final BiFunction<String, String, ? extends C> factory,
+            final Executor executor) {
+        this(factory, executor, null);
+    }
+
+    /**
+     * Creates a new instance which owns given transport.
+     *
+     * @param factory a function creates a client with a user name and a key
+     * @param executor the executor to be shared by clients
+     * @param transport the transport shared by clients to be closed when this
+     * registry is closed; may be {@code null}
+     */
+    public StorageClientRegistry(
+            final BiFunction<String, String, ? extends C> factory,
+            final Executor executor, final AutoCloseable transport) {
+        super();
+        this.factory = requireNonNull(factory, "null factory");
+        this.executor = requireNonNull(executor, "null executor");
+        this.transport = transport;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the client of given user. A new client is created, if none
+     * exists for the user or the key of the existing one differs from given
+     * key in which case the existing one is retired, not closed, so that
+     * requests still being made with it complete.
+     *
+     * @param authUser the user name
+     * @param authKey the key of the user
+     * @return the client of the user
+     */
+    public C get(final String authUser, final String authKey) {
+        requireNonNull(authUser, "null authUser");
+        requireNonNull(authKey, "null authKey");
+        if (closed) {
+            throw new IllegalStateException("closed");
+        }
+        return clients.compute(authUser, (u, existing) -> {
+            if (existing != null) {
+                if (existing.getAuthKey().equals(authKey)) {
+                    return existing;
+                }
+                existing.stopTokenRefresh();
+            }
+            final C created = requireNonNull(
+                    factory.apply(authUser, authKey), "null created");
+            created.setExecutor(executor);
+            created.setMetrics(metrics);
+            return created;
+        });
+    }
+
+    /**
+     * Removes the client of given user and stops refreshing its token. The
+     * client is not closed.
+     *
+     * @param authUser the user name
+     * @return {@code true} if a client is removed; {@code false} otherwise
+     */
+    public boolean remove(final String authUser) {
+        final C removed = clients.remove(authUser);
+        if (removed == null) {
+            return false;
+        }
+        removed.stopTokenRefresh();
+        return true;
+    }
+
+    /**
+     * Returns the names of users whose clients are registered.
+     *
+     * @return a sorted set of user names
+     */
+    public Set<String> getAuthUsers() {
+        return new TreeSet<>(clients.keySet());
+    }
+
+    /**
+     * Returns the executor shared by clients.
+     *
+     * @return the executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the metrics shared by clients.
+     *
+     * @return the metrics
+     */
+    public StorageMetrics getMetrics() {
+        return metrics;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Removes all registered clients and closes the transport, if owned by
+     * this registry. Note that the executor is not shut down by this method.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        final List<String> users = new ArrayList<>(clients.keySet());
+        for (final String user : users) {
+            remove(user);
+        }
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (final Exception e) {
+                throw new StorageClientException(e);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    private final BiFunction<String, String, ? extends C> factory;
+
+    private final Executor executor;
+
+    private final AutoCloseable transport;
+
+    private final StorageMetrics metrics = new StorageMetrics();
+
+    private final ConcurrentMap<String, C> clients = new ConcurrentHashMap<>();
+
+    private volatile boolean closed;
+}
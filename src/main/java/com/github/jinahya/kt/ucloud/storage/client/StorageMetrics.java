@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of responses received by clients sharing an instance of this class,
+ * regardless of their transports.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @see StorageClient#setMetrics(StorageMetrics)
+ * @see StorageClientRegistry#getMetrics()
+ */
+public class StorageMetrics {
+
+    /**
+     * Creates a new instance.
+     */
+    public StorageMetrics() {
+        super();
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return super.toString() + "{"
+               + "responseCounts=" + getResponseCounts()
+               + "}";
+    }
+
+    // -------------------------------------------------------------------------
+    void record(final int statusCode) {
+        counts.computeIfAbsent(statusCode, k -> new LongAdder()).increment();
+    }
+
+    // ----------------------------------------------------------- responseCount
+    /**
+     * Returns the number of all responses.
+     *
+     * @return the number of responses
+     */
+    public long getResponseCount() {
+        long sum = 0L;
+        for (final LongAdder count : counts.values()) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of responses of given status code.
+     *
+     * @param statusCode the status code
+     * @return the number of responses of {@code statusCode}
+     */
+    public long getResponseCount(final int statusCode) {
+        final LongAdder count = counts.get(statusCode);
+        return count == null ? 0L : count.sum();
+    }
+
+    /**
+     * Returns a snapshot of the numbers of responses keyed by status codes.
+     *
+     * @return a sorted map of status codes and numbers of responses
+     */
+    public SortedMap<Integer, Long> getResponseCounts() {
+        final SortedMap<Integer, Long> snapshot = new TreeMap<>();
+        for (final Map.Entry<Integer, LongAdder> e : counts.entrySet()) {
+            snapshot.put(e.getKey(), e.getValue().sum());
+        }
+        return snapshot;
+    }
+
+    // -------------------------------------------------------------------------
+    private final ConcurrentMap<Integer, LongAdder> counts
+            = new ConcurrentHashMap<>();
+}
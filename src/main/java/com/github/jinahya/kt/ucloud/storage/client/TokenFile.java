@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import static java.nio.file.attribute.PosixFilePermissions.asFileAttribute;
+import static java.nio.file.attribute.PosixFilePermissions.fromString;
+import java.util.EnumSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+/**
+ * A file stores authentication information as properties. The file is
+ * updated while exclusively locked so that processes sharing the file take
+ * turns; threads of a process take turns on a monitor of the file, since a
+ * file lock is held on behalf of the whole process. The file is made, when
+ * created or opened, readable and writable only by the owner where POSIX
+ * permissions are supported.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class TokenFile {
+
+    private static final Set<PosixFilePermission> PERMISSIONS
+            = fromString("rw-------");
+
+    private static final ConcurrentMap<Path, Object> MONITORS
+            = new ConcurrentHashMap<>();
+
+    private static FileChannel open(final Path path) throws IOException {
+        final Path parent = path.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final FileAttribute<Set<PosixFilePermission>> attribute
+                = asFileAttribute(PERMISSIONS);
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(path, EnumSet.of(CREATE, READ, WRITE),
+                                       attribute);
+        } catch (final UnsupportedOperationException uoe) {
+            return FileChannel.open(path, CREATE, READ, WRITE);
+        }
+        try {
+            if (!PERMISSIONS.containsAll(
+                    Files.getPosixFilePermissions(path))) {
+                Files.setPosixFilePermissions(path, PERMISSIONS);
+            }
+        } catch (final IOException ioe) {
+            channel.close();
+            throw ioe;
+        }
+        return channel;
+    }
+
+    /**
+     * Reads properties of given file, while the file is exclusively locked,
+     * and tests them with given predicate. The properties, possibly modified
+     * by the predicate, are written back to the file if the predicate returns
+     * {@code true}.
+     *
+     * @param path the path to the file
+     * @param predicate the predicate
+     * @throws IOException if an I/O error occurs.
+     */
+    static void update(final Path path,
+                       final Predicate<? super Properties> predicate)
+            throws IOException {
+        final Object monitor = MONITORS.computeIfAbsent(
+                path.toAbsolutePath().normalize(), k -> new Object());
+        synchronized (monitor) {
+            try (FileChannel channel = open(path)) {
+                final FileLock lock = channel.lock();
+                try {
+                    final Properties properties = new Properties();
+                    properties.load(Channels.newInputStream(channel));
+                    if (!predicate.test(properties)) {
+                        return;
+                    }
+                    channel.truncate(0L);
+                    channel.position(0L);
+                    properties.store(Channels.newOutputStream(channel), null);
+                    channel.force(false);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private TokenFile() {
+        super();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import static java.util.logging.Level.WARNING;
+import java.util.logging.Logger;
+import static java.util.logging.Logger.getLogger;
+
+/**
+ * A schedule refreshes a token ahead of its expiry. Each refresh schedules the
+ * next one with the lifetime of the new token, ahead of its expiry but not
+ * before the half of the lifetime, so that a token living shorter than the
+ * time ahead is refreshed at its half-life rather than over and over. A
+ * failed refresh, or a refreshed token already expired, is retried after the
+ * retry delay. A token refreshed without an expiry, which never expires as
+ * far as this client knows, ends the schedule.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+final class TokenRefresh {
+
+    private static final Logger logger
+            = getLogger(lookup().lookupClass().getName());
+
+    /**
+     * Creates a new instance.
+     *
+     * @param scheduler the scheduler
+     * @param refresher a supplier starts, or joins, a refresh
+     * @param expires a supplier of the expiry in milliseconds; {@code -1L} if
+     * unknown
+     * @param ahead the milliseconds ahead of the expiry
+     * @param retry the milliseconds to wait after a failure
+     */
+    TokenRefresh(final ScheduledExecutorService scheduler,
+                 final Supplier<? extends CompletableFuture<?>> refresher,
+                 final LongSupplier expires, final long ahead,
+                 final long retry) {
+        super();
+        this.scheduler = requireNonNull(scheduler, "null scheduler");
+        this.refresher = requireNonNull(refresher, "null refresher");
+        this.expires = requireNonNull(expires, "null expires");
+        this.ahead = ahead;
+        this.retry = retry;
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Schedules the first refresh with current expiry.
+     */
+    synchronized void start() {
+        final long expiry = expires.getAsLong();
+        schedule(expiry == -1L ? 0L : expiry - ahead - currentTimeMillis());
+    }
+
+    /**
+     * Cancels the schedule.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    private synchronized void schedule(final long delay) {
+        if (cancelled) {
+            return;
+        }
+        scheduled = scheduler.schedule(this::refresh, Math.max(delay, 0L),
+                                       MILLISECONDS);
+    }
+
+    private void refresh() {
+        refresher.get().whenComplete((r, t) -> {
+            if (t != null) {
+                logger.log(WARNING, "failed to refresh the token", t);
+                schedule(retry);
+                return;
+            }
+            final long expiry = expires.getAsLong();
+            if (expiry == -1L) {
+                // refreshed, but with no expiry to schedule the next one by
+                logger.fine("no expiry of the refreshed token; stopping");
+                return;
+            }
+            final long lifetime = expiry - currentTimeMillis();
+            if (lifetime <= 0L) {
+                logger.warning(() -> "refreshed token already expired; "
+                                     + "retrying in " + retry + " ms");
+                schedule(retry);
+                return;
+            }
+            if (ahead >= lifetime) {
+                logger.fine(() -> "lifetime(" + lifetime + ") <= ahead("
+                                  + ahead + "); refreshing at the half-life");
+            }
+            schedule(Math.max(lifetime - ahead, lifetime / 2L));
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    private final ScheduledExecutorService scheduler;
+
+    private final Supplier<? extends CompletableFuture<?>> refresher;
+
+    private final LongSupplier expires;
+
+    private final long ahead;
+
+    private final long retry;
+
+    private boolean cancelled;
+
+    private ScheduledFuture<?> scheduled;
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+/**
+ * A task uploads a file or, for a directory, forks a sub task for each entry
+ * of the directory so that idle workers steal uploads of other directories.
+ * Symbolic links to directories are not followed and entries other than
+ * directories and regular files are ignored. Once any task fails, tasks of
+ * the same tree not yet started are cancelled and the others stop forking
+ * and uploading.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+class TreeUpload extends RecursiveTask<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param path a directory or a regular file
+     * @param uploader a function uploads a regular file and results the number
+     * of bytes uploaded
+     */
+    TreeUpload(final Path path, final ToLongFunction<Path> uploader) {
+        this(path, uploader, new AtomicBoolean());
+    }
+
+    private TreeUpload(final Path path, final ToLongFunction<Path> uploader,
+                       final AtomicBoolean failed) {
+        super();
+        this.path = requireNonNull(path, "null path");
+        this.uploader = requireNonNull(uploader, "null uploader");
+        this.failed = failed;
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    protected Long compute() {
+        if (failed.get()) {
+            return 0L;
+        }
+        if (Files.isRegularFile(path)) {
+            try {
+                return uploader.applyAsLong(path);
+            } catch (final RuntimeException | Error e) {
+                failed.set(true);
+                throw e;
+            }
+        }
+        if (!Files.isDirectory(path, NOFOLLOW_LINKS)) {
+            return 0L;
+        }
+        final List<TreeUpload> tasks = new ArrayList<>();
+        try {
+            try (DirectoryStream<Path> entries
+                    = Files.newDirectoryStream(path)) {
+                for (final Path entry : entries) {
+                    if (failed.get()) {
+                        break;
+                    }
+                    final TreeUpload task
+                            = new TreeUpload(entry, uploader, failed);
+                    task.fork();
+                    tasks.add(task);
+                }
+            }
+            long bytes = 0L;
+            for (final TreeUpload task : tasks) {
+                bytes += task.join();
+            }
+            return bytes;
+        } catch (final IOException ioe) {
+            failed.set(true);
+            throw new StorageClientException(ioe);
+        } catch (final RuntimeException | Error e) {
+            failed.set(true);
+            throw e;
+        } finally {
+            if (failed.get()) {
+                for (final TreeUpload task : tasks) {
+                    task.cancel(false);
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    private final transient Path path;
+
+    private final transient ToLongFunction<Path> uploader;
+
+    private final transient AtomicBoolean failed;
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+/**
+ * A summary of a bulk upload.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @see StorageClient#updateObjects(java.nio.file.Path, java.lang.String,
+ * java.util.function.Function, java.lang.String,
+ * java.util.concurrent.ForkJoinPool, java.util.function.ObjLongConsumer)
+ */
+public class UploadSummary {
+
+    UploadSummary(final long files, final long bytes, final long elapsed) {
+        super();
+        this.files = files;
+        this.bytes = bytes;
+        this.elapsed = elapsed;
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return super.toString() + "{"
+               + "files=" + files
+               + ", bytes=" + bytes
+               + ", elapsed=" + elapsed
+               + "}";
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Returns the number of files uploaded.
+     *
+     * @return the number of files uploaded
+     */
+    public long getFiles() {
+        return files;
+    }
+
+    /**
+     * Returns the number of bytes uploaded.
+     *
+     * @return the number of bytes uploaded
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the elapsed time of the upload in milliseconds.
+     *
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Returns the aggregate throughput in bytes per second.
+     *
+     * @return the number of bytes uploaded per second
+     */
+    public double getThroughput() {
+        return bytes * 1000.0d / Math.max(elapsed, 1L);
+    }
+
+    /**
+     * Returns the number of files uploaded per second.
+     *
+     * @return the number of files uploaded per second
+     */
+    public double getFileRate() {
+        return files * 1000.0d / Math.max(elapsed, 1L);
+    }
+
+    // -------------------------------------------------------------------------
+    private final long files;
+
+    private final long bytes;
+
+    private final long elapsed;
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client.bind;
+
+import java.util.Objects;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * An entry of an object listing read with {@code format=xml}.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+@XmlRootElement(name = "object")
+public class ObjectInfo {
+
+    // -------------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return super.toString() + "{"
+               + "name=" + name
+               + ", bytes=" + bytes
+               + ", hash=" + hash
+               + ", contentType=" + contentType
+               + ", lastModified=" + lastModified
+               + "}";
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, bytes, hash, contentType, lastModified);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final ObjectInfo other = (ObjectInfo) obj;
+        return bytes == other.bytes
+               && Objects.equals(name, other.name)
+               && Objects.equals(hash, other.hash)
+               && Objects.equals(contentType, other.contentType)
+               && Objects.equals(lastModified, other.lastModified);
+    }
+
+    // -------------------------------------------------------------------- name
+    public String getName() {
+        return name;
+    }
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public ObjectInfo name(final String name) {
+        setName(name);
+        return this;
+    }
+
+    // ------------------------------------------------------------------- bytes
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(final long bytes) {
+        this.bytes = bytes;
+    }
+
+    public ObjectInfo bytes(final long bytes) {
+        setBytes(bytes);
+        return this;
+    }
+
+    // -------------------------------------------------------------------- hash
+    /**
+     * Returns the MD5 hash, the {@code ETag}, of the object.
+     *
+     * @return the hash
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(final String hash) {
+        this.hash = hash;
+    }
+
+    public ObjectInfo hash(final String hash) {
+        setHash(hash);
+        return this;
+    }
+
+    // ------------------------------------------------------------- contentType
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(final String contentType) {
+        this.contentType = contentType;
+    }
+
+    public ObjectInfo contentType(final String contentType) {
+        setContentType(contentType);
+        return this;
+    }
+
+    // ------------------------------------------------------------ lastModified
+    /**
+     * Returns the last modified time as it is listed, e.g.
+     * {@code 2016-08-10T05:26:32.612278}, in UTC.
+     *
+     * @return the last modified time
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(final String lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public ObjectInfo lastModified(final String lastModified) {
+        setLastModified(lastModified);
+        return this;
+    }
+
+    // -------------------------------------------------------------------------
+    @XmlElement(required = true)
+    private String name;
+
+    @XmlElement
+    private long bytes;
+
+    @XmlElement
+    private String hash;
+
+    @XmlElement(name = "content_type")
+    private String contentType;
+
+    @XmlElement(name = "last_modified")
+    private String lastModified;
+}
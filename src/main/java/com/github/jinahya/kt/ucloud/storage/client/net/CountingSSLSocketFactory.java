@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client.net;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * An {@link SSLSocketFactory} counts sockets it creates. Each created socket
+ * means a new connection; a connection reused from the keep-alive cache creates
+ * no socket.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+class CountingSSLSocketFactory extends SSLSocketFactory {
+
+    CountingSSLSocketFactory(final SSLSocketFactory delegate) {
+        super();
+        this.delegate = requireNonNull(delegate, "null delegate");
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        final Socket socket = delegate.createSocket();
+        count.incrementAndGet();
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(final Socket s, final String host,
+                               final int port, final boolean autoClose)
+            throws IOException {
+        // layered over a plain socket; e.g. tunneled through a proxy
+        final Socket socket = delegate.createSocket(s, host, port, autoClose);
+        count.incrementAndGet();
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port)
+            throws IOException {
+        final Socket socket = delegate.createSocket(host, port);
+        count.incrementAndGet();
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port,
+                               final InetAddress localHost,
+                               final int localPort)
+            throws IOException {
+        final Socket socket
+                = delegate.createSocket(host, port, localHost, localPort);
+        count.incrementAndGet();
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress host, final int port)
+            throws IOException {
+        final Socket socket = delegate.createSocket(host, port);
+        count.incrementAndGet();
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress address, final int port,
+                               final InetAddress localAddress,
+                               final int localPort)
+            throws IOException {
+        final Socket socket = delegate.createSocket(
+                address, port, localAddress, localPort);
+        count.incrementAndGet();
+        return socket;
+    }
+
+    // -------------------------------------------------------------------------
+    long getCount() {
+        return count.get();
+    }
+
+    // -------------------------------------------------------------------------
+    private final SSLSocketFactory delegate;
+
+    private final AtomicLong count = new AtomicLong();
+}
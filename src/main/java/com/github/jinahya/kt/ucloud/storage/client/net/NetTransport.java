@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.HttpsURLConnection;
+
+/**
+ * The transport state shared by clients. The JDK pools {@code https}
+ * connections per socket factory, so clients sharing an instance of this
+ * class, and hence its socket factory, share pooled connections as well as
+ * the counts of requests and connections.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ * @see StorageClientNet#StorageClientNet(java.lang.String, java.lang.String,
+ * java.lang.String, NetTransport)
+ */
+public class NetTransport {
+
+    /**
+     * Creates a new instance.
+     */
+    public NetTransport() {
+        super();
+    }
+
+    // -------------------------------------------------------------------------
+    CountingSSLSocketFactory getSocketFactory() {
+        return socketFactory;
+    }
+
+    void countRequest() {
+        requestCount.incrementAndGet();
+    }
+
+    // ------------------------------------------------------------ requestCount
+    /**
+     * Returns the number of requests made by clients sharing this transport.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    // --------------------------------------------------------- connectionCount
+    /**
+     * Returns the number of new {@code https} connections opened by clients
+     * sharing this transport.
+     *
+     * @return the number of new connections
+     */
+    public long getConnectionCount() {
+        return socketFactory.getCount();
+    }
+
+    // -------------------------------------------------------------------------
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final CountingSSLSocketFactory socketFactory
+            = new CountingSSLSocketFactory(
+                    HttpsURLConnection.getDefaultSSLSocketFactory());
+}
@@ -15,24 +15,33 @@
  */
 package com.github.jinahya.kt.ucloud.storage.client.net;
 
+import com.github.jinahya.kt.ucloud.storage.client.Session;
 import com.github.jinahya.kt.ucloud.storage.client.StorageClient;
 import com.github.jinahya.kt.ucloud.storage.client.StorageClientException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import static java.lang.Boolean.TRUE;
 import static java.lang.invoke.MethodHandles.lookup;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
 import static java.util.Collections.singletonList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import static java.util.Objects.requireNonNull;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import static java.util.logging.Level.FINEST;
 import java.util.logging.Logger;
 import static java.util.logging.Logger.getLogger;
 import static java.util.stream.Collectors.joining;
+import java.util.zip.GZIPOutputStream;
+import javax.net.ssl.HttpsURLConnection;
 
 /**
  * A client for accessing kt ucloud storage using classes in {@code java.net}.
@@ -46,7 +55,34 @@ public class StorageClientNet
             = getLogger(lookup().lookupClass().getName());
 
     /**
-     * Appends given query parameters to specified string builder.
+     * The name of the system property for the maximum number of idle
+     * connections kept alive per destination. The value is {@value}.
+     */
+    public static final String SYSTEM_PROPERTY_HTTP_MAX_CONNECTIONS
+            = "http.maxConnections";
+
+    /**
+     * Sets the maximum number of idle connections the JDK keeps alive per
+     * destination. Note that the value is read only once, by the JDK, when the
+     * first HTTP connection is opened, and affects every
+     * {@code HttpURLConnection} in the virtual machine.
+     *
+     * @param maxConnections the maximum number of idle connections per
+     * destination
+     * @see #SYSTEM_PROPERTY_HTTP_MAX_CONNECTIONS
+     */
+    public static void keepAliveMaxConnections(final int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException(
+                    "maxConnections(" + maxConnections + ") <= 0");
+        }
+        System.setProperty(SYSTEM_PROPERTY_HTTP_MAX_CONNECTIONS,
+                           Integer.toString(maxConnections));
+    }
+
+    /**
+     * Appends given query parameters to specified string builder. Names and
+     * values are {@link #encode(java.lang.String) percent-encoded}.
      *
      * @param builder the string builder
      * @param params the query parameters; may be {@code null}
@@ -59,7 +95,8 @@ public class StorageClientNet
             builder.append('?').append(
                     params.entrySet().stream().flatMap(
                             e -> e.getValue().stream()
-                            .map(v -> e.getKey() + "=" + v))
+                            .map(v -> encode(e.getKey()) + "="
+                                      + encode(String.valueOf(v))))
                     .collect(joining("&")));
         }
         return builder;
@@ -325,7 +362,40 @@ public class StorageClientNet
     // -------------------------------------------------------------------------
     public StorageClientNet(final String authUrl, final String authUser,
                             final String authKey) {
+        this(authUrl, authUser, authKey, new NetTransport());
+    }
+
+    /**
+     * Creates a new instance which shares given transport with other clients.
+     * Clients sharing a transport share pooled connections and the counts of
+     * requests and connections.
+     *
+     * @param authUrl a URL for authentication
+     * @param authUser username
+     * @param authKey password
+     * @param transport the transport to share
+     * @see com.github.jinahya.kt.ucloud.storage.client.StorageClientRegistry
+     */
+    public StorageClientNet(final String authUrl, final String authUser,
+                            final String authKey,
+                            final NetTransport transport) {
         super(authUrl, authUser, authKey);
+        this.transport = requireNonNull(transport, "null transport");
+    }
+
+    /**
+     * Creates a new instance with given keep-alive mode.
+     *
+     * @param authUrl a URL for authentication
+     * @param authUser username
+     * @param authKey password
+     * @param keepAlive a flag for connection reusing mode
+     * @see #setKeepAlive(boolean)
+     */
+    public StorageClientNet(final String authUrl, final String authUser,
+                            final String authKey, final boolean keepAlive) {
+        this(authUrl, authUser, authKey);
+        setKeepAlive(keepAlive);
     }
 
 //    @Deprecated
@@ -344,6 +414,21 @@ public class StorageClientNet
             throw new StorageClientException(ioe);
         }
     }
+
+    @Override
+    public String getHeaderValue(final URLConnection response,
+                                 final String name) {
+        return response.getHeaderField(name);
+    }
+
+    @Override
+    public InputStream getRawEntityStream(final URLConnection response) {
+        try {
+            return response.getInputStream();
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+    }
 //
 //    @Override
 //    @Deprecated
@@ -383,7 +468,7 @@ public class StorageClientNet
             headers(connection, headers);
             connection.setDoOutput(false);
             connection.setDoInput(true);
-            connection.connect();
+            connect(connection);
             try {
                 final int statusCode = connection.getResponseCode();
                 if (statusCode != 200) {
@@ -392,44 +477,100 @@ public class StorageClientNet
                             "failed to authenticate user; " + statusCode + " "
                             + reasonPhrase);
                 }
-                setStorageUrl(connection.getHeaderField(HEADER_X_STORAGE_URL));
-                setAuthToken(connection.getHeaderField(HEADER_X_AUTH_TOKEN));
-                setAuthTokenExpires(
+                setSession(
+                        connection.getHeaderField(HEADER_X_STORAGE_URL),
+                        connection.getHeaderField(HEADER_X_AUTH_TOKEN),
                         connection.getHeaderField(HEADER_X_AUTH_TOKEN_EXPIRES));
                 return function.apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
         }
     }
 
+    /**
+     * Connects given connection. This method counts requests and, for an
+     * {@code HttpsURLConnection}, installs the socket factory which counts
+     * new connections.
+     *
+     * @param connection the connection to connect
+     * @throws IOException if an I/O error occurs.
+     * @see #getRequestCount()
+     * @see #getConnectionCount()
+     */
+    protected void connect(final HttpURLConnection connection)
+            throws IOException {
+        if (connection instanceof HttpsURLConnection) {
+            ((HttpsURLConnection) connection)
+                    .setSSLSocketFactory(transport.getSocketFactory());
+        }
+        transport.countRequest();
+        connection.connect();
+    }
+
+    /**
+     * Releases given connection. In {@link #isKeepAlive() keep-alive} mode,
+     * this method drains and closes the response body so that the underlying
+     * socket is returned to the JDK's keep-alive cache. Otherwise, or when the
+     * body can't be drained or has more than {@value #DRAIN_LIMIT} bytes
+     * remaining, this method disconnects the connection.
+     *
+     * @param connection the connection to release
+     */
+    protected void release(final HttpURLConnection connection) {
+        if (!keepAlive) {
+            connection.disconnect();
+            return;
+        }
+        try {
+            final InputStream stream = connection.getResponseCode() >= 400
+                                       ? connection.getErrorStream()
+                                       : connection.getInputStream();
+            if (drain(stream)) {
+                if (stream != null) {
+                    stream.close();
+                }
+                return;
+            }
+            logger.log(FINEST, "too much to drain; disconnecting");
+        } catch (final IOException ioe) {
+            // e.g. the stream has already been closed by the caller
+            logger.log(FINEST, "failed to drain; disconnecting", ioe);
+        }
+        connection.disconnect();
+    }
+
     // ---------------------------------------------------------------- /storage
     @Override
     public <R> R peekStorage(final Map<String, List<Object>> params,
-                             Map<String, List<Object>> headers,
+                             final Map<String, List<Object>> headers,
                              final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openStorage(getStorageUrl(), params);
-            connection.setRequestMethod("HEAD");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openStorage(
+                                session.getStorageUrl(), params);
+                connection.setRequestMethod("HEAD");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return function.apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 //    @Override
 //    public <R> R peekStorage(
@@ -460,251 +601,285 @@ public class StorageClientNet
 
     @Override
     public <R> R readStorage(final Map<String, List<Object>> params,
-                             Map<String, List<Object>> headers,
+                             final Map<String, List<Object>> headers,
                              final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openStorage(
-                            getStorageUrl(), params);
-            connection.setRequestMethod("GET");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openStorage(
+                                session.getStorageUrl(), params);
+                connection.setRequestMethod("GET");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return function.apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R configureStorage(final Map<String, List<Object>> params,
-                                  Map<String, List<Object>> headers,
+                                  final Map<String, List<Object>> headers,
                                   final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openStorage(
-                            getStorageUrl(), params);
-            connection.setRequestMethod("POST");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.putIfAbsent(HEADER_X_AUTH_TOKEN,
-                                singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openStorage(
+                                session.getStorageUrl(), params);
+                connection.setRequestMethod("POST");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return invalidating(null, null, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     // ------------------------------------------------------ /account/container
     public <R> R peekContainer(final String containerName,
                                final Map<String, List<Object>> params,
-                               Map<String, List<Object>> headers,
+                               final Map<String, List<Object>> headers,
                                final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openContainer(
-                            getStorageUrl(), containerName, params);
-            connection.setRequestMethod("HEAD");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openContainer(
+                                session.getStorageUrl(), containerName, params);
+                connection.setRequestMethod("HEAD");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return function.apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R readContainer(final String containerName,
                                final Map<String, List<Object>> params,
-                               Map<String, List<Object>> headers,
+                               final Map<String, List<Object>> headers,
                                final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openContainer(
-                            getStorageUrl(), containerName, params);
-            connection.setRequestMethod("GET");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openContainer(
+                                session.getStorageUrl(), containerName, params);
+                connection.setRequestMethod("GET");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return function.apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R updateContainer(final String containerName,
                                  final Map<String, List<Object>> params,
-                                 Map<String, List<Object>> headers,
+                                 final Map<String, List<Object>> headers,
                                  final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openContainer(
-                            getStorageUrl(), containerName, params);
-            connection.setRequestMethod("PUT");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openContainer(
+                                session.getStorageUrl(), containerName, params);
+                connection.setRequestMethod("PUT");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return invalidating(containerName, null, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R configureContainer(final String containerName,
                                     final Map<String, List<Object>> params,
-                                    Map<String, List<Object>> headers,
+                                    final Map<String, List<Object>> headers,
                                     final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openContainer(
-                            getStorageUrl(), containerName, params);
-            connection.setRequestMethod("POST");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openContainer(
+                                session.getStorageUrl(), containerName, params);
+                connection.setRequestMethod("POST");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return invalidating(containerName, null, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R deleteContainer(final String containerName,
                                  final Map<String, List<Object>> params,
-                                 Map<String, List<Object>> headers,
+                                 final Map<String, List<Object>> headers,
                                  final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection
-                    = (HttpURLConnection) openContainer(
-                            getStorageUrl(), containerName, params);
-            connection.setRequestMethod("DELETE");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openContainer(
+                                session.getStorageUrl(), containerName, params);
+                connection.setRequestMethod("DELETE");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return invalidating(containerName, null, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     // ----------------------------------------------- /account/container/object
     public <R> R peekObject(final String containerName, final String objectName,
                             final Map<String, List<Object>> params,
-                            Map<String, List<Object>> headers,
+                            final Map<String, List<Object>> headers,
                             final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection = (HttpURLConnection) openObject(
-                    getStorageUrl(), containerName, objectName, params);
-            connection.setRequestMethod("HEAD");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(false); // @@?
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openObject(
+                                session.getStorageUrl(), containerName,
+                                objectName, params);
+                connection.setRequestMethod("HEAD");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return function.apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R readObject(final String containerName, final String objectName,
                             final Map<String, List<Object>> params,
-                            Map<String, List<Object>> headers,
+                            final Map<String, List<Object>> headers,
                             final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection = (HttpURLConnection) openObject(
-                    getStorageUrl(), containerName, objectName, params);
-            connection.setRequestMethod("GET");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openObject(
+                                session.getStorageUrl(), containerName,
+                                objectName, params);
+                connection.setRequestMethod("GET");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(true);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return function.apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
 //    @Override
@@ -751,19 +926,21 @@ public class StorageClientNet
             Map<String, List<Object>> headers,
             final Function<URLConnection, URLConnection> function1,
             final Function<URLConnection, R> function2) {
+        final Session session = getSession();
         try {
             final HttpURLConnection connection = (HttpURLConnection) openObject(
-                    getStorageUrl(), containerName, objectName, params);
+                    session.getStorageUrl(), containerName, objectName, params);
             connection.setRequestMethod("PUT");
             if (headers == null) {
                 headers = new HashMap<>();
             }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
+            headers.put(HEADER_X_AUTH_TOKEN,
+                        singletonList(session.getAuthToken()));
             headers(connection, headers);
             connection.setDoOutput(true);
             connection.setDoInput(true);
             connection.setChunkedStreamingMode(0);
-            connection.connect();
+            connect(connection);
             try {
                 function1.apply(connection);
 //                try (InputStream input = operator.get();
@@ -774,69 +951,187 @@ public class StorageClientNet
 //                    }
 //                    output.flush();
 //                }
-                return function2.apply(connection);
+                return invalidating(containerName, objectName, function2)
+                        .apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
         }
     }
 
+    /**
+     * {@inheritDoc} The request is sent in the fixed-length streaming mode, or
+     * in the chunked streaming mode when compressed, and the region is
+     * transferred with {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)}.
+     */
+    @Override
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers, final FileChannel channel,
+            final long position, final long count,
+            final Function<URLConnection, R> function) {
+        return replaying(() -> {
+            final Session session = getSession();
+            try {
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openObject(
+                                session.getStorageUrl(), containerName,
+                                objectName, params);
+                connection.setRequestMethod("PUT");
+                final Map<String, List<Object>> headers_ = headers == null
+                                                           ? new HashMap<>()
+                                                           : new HashMap<>(
+                                                                   headers);
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                final boolean gzip = compressing(headers_);
+                if (gzip) {
+                    headers_.put(HEADER_CONTENT_ENCODING,
+                                singletonList(ENCODING_GZIP));
+                }
+                headers(connection, headers_);
+                connection.setDoOutput(true);
+                connection.setDoInput(true);
+                if (gzip) {
+                    connection.setChunkedStreamingMode(0);
+                } else {
+                    connection.setFixedLengthStreamingMode(count);
+                }
+                final MessageDigest digest = uploadDigest(headers_);
+                connect(connection);
+                try {
+                    final OutputStream digested
+                            = digested(connection.getOutputStream(), digest);
+                    try (OutputStream output = gzip
+                                               ? new GZIPOutputStream(digested)
+                                               : digested) {
+                        transfer(channel, position, count, output);
+                    }
+                    return invalidating(containerName, objectName,
+                                        verifying(digest, function))
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc} The request is sent with an empty body of the fixed
+     * length.
+     */
+    @Override
+    public <R> R copyObject(final String sourceContainerName,
+                            final String sourceObjectName,
+                            final String containerName,
+                            final String objectName,
+                            final Map<String, List<Object>> headers,
+                            final Function<URLConnection, R> function) {
+        return replaying(() -> {
+            final Session session = getSession();
+            try {
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openObject(
+                                session.getStorageUrl(), containerName,
+                                objectName, null);
+                connection.setRequestMethod("PUT");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers_.put(HEADER_X_COPY_FROM, singletonList(
+                        copySource(sourceContainerName, sourceObjectName)));
+                headers(connection, headers_);
+                connection.setDoOutput(true);
+                connection.setDoInput(true);
+                connection.setFixedLengthStreamingMode(0L);
+                connect(connection);
+                try {
+                    connection.getOutputStream().close();
+                    return invalidating(containerName, objectName, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
+            }
+        });
+    }
+
     @Override
     public <T> T configureObject(final String containerName,
                                  final String objectName,
                                  final Map<String, List<Object>> params,
-                                 Map<String, List<Object>> headers,
+                                 final Map<String, List<Object>> headers,
                                  final Function<URLConnection, T> function) {
-        try {
-            final HttpURLConnection connection = (HttpURLConnection) openObject(
-                    getStorageUrl(), containerName, objectName, params);
-            connection.setRequestMethod("POST");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openObject(
+                                session.getStorageUrl(), containerName,
+                                objectName, params);
+                connection.setRequestMethod("POST");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return invalidating(containerName, objectName, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     @Override
     public <R> R deleteObject(final String containerName,
                               final String objectName,
                               final Map<String, List<Object>> params,
-                              Map<String, List<Object>> headers,
+                              final Map<String, List<Object>> headers,
                               final Function<URLConnection, R> function) {
-        try {
-            final HttpURLConnection connection = (HttpURLConnection) openObject(
-                    getStorageUrl(), containerName, objectName, params);
-            connection.setRequestMethod("DELETE");
-            if (headers == null) {
-                headers = new HashMap<>();
-            }
-            headers.put(HEADER_X_AUTH_TOKEN, singletonList(getAuthToken()));
-            headers(connection, headers);
-            connection.setDoOutput(false);
-            connection.setDoInput(true);
-            connection.connect();
+        return replaying(() -> {
+            final Session session = getSession();
             try {
-                return function.apply(connection);
-            } finally {
-                connection.disconnect();
+                final HttpURLConnection connection
+                        = (HttpURLConnection) openObject(
+                                session.getStorageUrl(), containerName,
+                                objectName, params);
+                connection.setRequestMethod("DELETE");
+                final Map<String, List<Object>> headers_
+                        = headers == null ? new HashMap<>() : headers;
+                headers_.put(HEADER_X_AUTH_TOKEN,
+                             singletonList(session.getAuthToken()));
+                headers(connection, headers_);
+                connection.setDoOutput(false);
+                connection.setDoInput(true);
+                connect(connection);
+                try {
+                    return invalidating(containerName, objectName, function)
+                            .apply(authorized(connection));
+                } finally {
+                    release(connection);
+                }
+            } catch (final IOException ioe) {
+                throw new StorageClientException(ioe);
             }
-        } catch (final IOException ioe) {
-            throw new StorageClientException(ioe);
-        }
+        });
     }
 
     // ---------------------------------------------------------------- /account
@@ -858,11 +1153,11 @@ public class StorageClientNet
             headers(connection, headers);
             connection.setDoOutput(false);
             connection.setDoInput(true);
-            connection.connect();
+            connect(connection);
             try {
                 return function.apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
@@ -884,11 +1179,11 @@ public class StorageClientNet
             headers(connection, headers);
             connection.setDoOutput(false);
             connection.setDoInput(true);
-            connection.connect();
+            connect(connection);
             try {
                 return function.apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
@@ -915,11 +1210,11 @@ public class StorageClientNet
             headers(connection, headers);
             connection.setDoOutput(false);
             connection.setDoInput(true);
-            connection.connect();
+            connect(connection);
             try {
                 return function.apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
@@ -940,11 +1235,11 @@ public class StorageClientNet
             headers(connection, headers);
             connection.setDoOutput(false);
             connection.setDoInput(true);
-            connection.connect();
+            connect(connection);
             try {
                 return function.apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
@@ -968,14 +1263,82 @@ public class StorageClientNet
                 headers(connection, headers);
             }
             authAdmin(connection, getAuthUser(), getAuthKey());
-            connection.connect();
+            connect(connection);
             try {
                 return function.apply(connection);
             } finally {
-                connection.disconnect();
+                release(connection);
             }
         } catch (final IOException ioe) {
             throw new StorageClientException(ioe);
         }
     }
+
+    // --------------------------------------------------------------- keepAlive
+    /**
+     * Tells whether this client is in the connection reusing mode.
+     *
+     * @return {@code true} if in the connection reusing mode; {@code false}
+     * otherwise.
+     * @see #release(java.net.HttpURLConnection)
+     */
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * Sets the connection reusing mode. When {@code true}, connections are
+     * released, rather than disconnected, after each request so that they can
+     * be reused for subsequent requests to the same host.
+     *
+     * @param keepAlive new value for the mode
+     * @see #keepAliveMaxConnections(int)
+     */
+    public void setKeepAlive(final boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public StorageClientNet keepAlive(final boolean keepAlive) {
+        setKeepAlive(keepAlive);
+        return this;
+    }
+
+    // ------------------------------------------------------------ requestCount
+    /**
+     * Returns the number of requests made by this client, or by all clients
+     * sharing the {@link #getTransport() transport} of this client.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return transport.getRequestCount();
+    }
+
+    // --------------------------------------------------------- connectionCount
+    /**
+     * Returns the number of new {@code https} connections opened by this
+     * client, or by all clients sharing the {@link #getTransport() transport}
+     * of this client. A value less than the {@link #getRequestCount() number of
+     * requests} confirms that connections are being reused.
+     *
+     * @return the number of new connections
+     */
+    public long getConnectionCount() {
+        return transport.getConnectionCount();
+    }
+
+    // --------------------------------------------------------------- transport
+    /**
+     * Returns the transport of this client.
+     *
+     * @return the transport
+     */
+    public NetTransport getTransport() {
+        return transport;
+    }
+
+    // -------------------------------------------------------------------------
+    private volatile boolean keepAlive;
+
+    private final NetTransport transport;
 }
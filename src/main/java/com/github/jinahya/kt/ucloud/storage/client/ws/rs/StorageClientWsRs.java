@@ -15,16 +15,24 @@
  */
 package com.github.jinahya.kt.ucloud.storage.client.ws.rs;
 
+import com.github.jinahya.kt.ucloud.storage.client.Session;
 import com.github.jinahya.kt.ucloud.storage.client.StorageClient;
 import com.github.jinahya.kt.ucloud.storage.client.StorageClientException;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import static java.lang.invoke.MethodHandles.lookup;
+import static java.util.Objects.requireNonNull;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.security.MessageDigest;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -33,18 +41,29 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 import static java.util.logging.Logger.getLogger;
+import java.util.zip.GZIPOutputStream;
+import static javax.ws.rs.HttpMethod.DELETE;
+import static javax.ws.rs.HttpMethod.GET;
+import static javax.ws.rs.HttpMethod.HEAD;
+import static javax.ws.rs.HttpMethod.POST;
+import static javax.ws.rs.HttpMethod.PUT;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.AsyncInvoker;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status.Family;
 import static javax.ws.rs.core.Response.Status.OK;
 import javax.ws.rs.core.Response.StatusType;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * A client for accessing kt ucloud storage using classes in
@@ -81,6 +100,30 @@ public class StorageClientWsRs
         return multi;
     }
 
+    /**
+     * Returns an output stream writes through to given output stream but
+     * only flushes it when closed. A compressing stream over an entity stream
+     * can be closed, and thus can release its deflater, without closing the
+     * entity stream which belongs to the implementation.
+     *
+     * @param output the output stream
+     * @return an output stream which doesn't close {@code output}
+     */
+    private static OutputStream unclosing(final OutputStream output) {
+        return new FilterOutputStream(output) {
+            @Override
+            public void write(final byte[] b, final int off, final int len)
+                    throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
     public static <R> R statusInfo(final Response response,
                                    final Function<StatusType, R> function) {
         return function.apply(response.getStatusInfo());
@@ -449,6 +492,25 @@ public class StorageClientWsRs
         super(authUrl, authUser, authKey);
     }
 
+    /**
+     * Creates a new instance which uses given client for all requests. The
+     * client is shared across requests and closed when this storage client is
+     * {@link #close() closed}. Configure connection pooling, keep-alive and
+     * timeouts on the client using properties of the JAX-RS implementation in
+     * use.
+     *
+     * @param authUrl the authentication URL
+     * @param authUser the authentication username
+     * @param authKey the authentication password
+     * @param sharedClient the client to share
+     * @see #setSharedClient(javax.ws.rs.client.Client)
+     */
+    public StorageClientWsRs(final String authUrl, final String authUser,
+                             final String authKey, final Client sharedClient) {
+        this(authUrl, authUser, authKey);
+        setSharedClient(requireNonNull(sharedClient, "null sharedClient"));
+    }
+
 //    @Deprecated
 //    public StorageClientWsRs(final StorageClient client) {
 //        this(client.getStorageUrl(), client.getAuthUser(),
@@ -462,6 +524,16 @@ public class StorageClientWsRs
     public int getStatusCode(final Response response) {
         return response.getStatus();
     }
+
+    @Override
+    public String getHeaderValue(final Response response, final String name) {
+        return response.getHeaderString(name);
+    }
+
+    @Override
+    public InputStream getRawEntityStream(final Response response) {
+        return response.readEntity(InputStream.class);
+    }
 //
 //    @Override
 //    @Deprecated
@@ -487,10 +559,10 @@ public class StorageClientWsRs
                     throw new WebApplicationException(
                             "failed to authenticate user", response);
                 }
-                setStorageUrl(response.getHeaderString(HEADER_X_STORAGE_URL));
-                setAuthToken(response.getHeaderString(HEADER_X_AUTH_TOKEN));
-                setAuthTokenExpires(response.getHeaderString(
-                        HEADER_X_AUTH_TOKEN_EXPIRES));
+                setSession(response.getHeaderString(HEADER_X_STORAGE_URL),
+                           response.getHeaderString(HEADER_X_AUTH_TOKEN),
+                           response.getHeaderString(
+                                   HEADER_X_AUTH_TOKEN_EXPIRES));
                 return function.apply(response);
             } finally {
                 response.close();
@@ -502,23 +574,28 @@ public class StorageClientWsRs
     public <R> R peekStorage(final MultivaluedMap<String, Object> params,
                              final MultivaluedMap<String, Object> headers,
                              final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildStorage(
-                    client, getStorageUrl(), params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.head();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildStorage(
+                        client, session.getStorageUrl(), params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.head();
+                try {
+                    return function.apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -569,23 +646,28 @@ public class StorageClientWsRs
     public <R> R readStorage(final MultivaluedMap<String, Object> params,
                              final MultivaluedMap<String, Object> headers,
                              final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildStorage(
-                    client, getStorageUrl(), params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.get();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildStorage(
+                        client, session.getStorageUrl(), params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.get();
+                try {
+                    return function.apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -598,23 +680,29 @@ public class StorageClientWsRs
     public <R> R configureStorage(final MultivaluedMap<String, Object> params,
                                   final MultivaluedMap<String, Object> headers,
                                   final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildStorage(
-                    client, getStorageUrl(), params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.post(null);
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildStorage(
+                        client, session.getStorageUrl(), params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.post(null);
+                try {
+                    return invalidating(null, null, function)
+                            .apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -630,23 +718,28 @@ public class StorageClientWsRs
                                final MultivaluedMap<String, Object> params,
                                final MultivaluedMap<String, Object> headers,
                                final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildContainer(
-                    client, getStorageUrl(), containerName, params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.head();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildContainer(
+                        client, session.getStorageUrl(), containerName, params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.head();
+                try {
+                    return function.apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -662,23 +755,28 @@ public class StorageClientWsRs
                                final MultivaluedMap<String, Object> params,
                                final MultivaluedMap<String, Object> headers,
                                final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildContainer(
-                    client, getStorageUrl(), containerName, params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.get();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildContainer(
+                        client, session.getStorageUrl(), containerName, params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.get();
+                try {
+                    return function.apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -706,23 +804,29 @@ public class StorageClientWsRs
                                  final MultivaluedMap<String, Object> params,
                                  final MultivaluedMap<String, Object> headers,
                                  final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            final Invocation.Builder builder = buildContainer(
-                    client, getStorageUrl(), containerName, params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder.headers(headers);
-            }
-            final Response response = builder.put(Entity.text(""));
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                final Invocation.Builder builder = buildContainer(
+                        client, session.getStorageUrl(), containerName, params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder.headers(headers);
+                }
+                final Response response = builder.put(Entity.text(""));
+                try {
+                    return invalidating(containerName, null, function)
+                            .apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -739,24 +843,29 @@ public class StorageClientWsRs
             final MultivaluedMap<String, Object> params,
             final MultivaluedMap<String, Object> headers,
             final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            final Invocation.Builder builder = buildContainer(
-                    client, getStorageUrl(), containerName, params,
-                    getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder.headers(headers);
-            }
-            final Response response = builder.post(null);
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                final Invocation.Builder builder = buildContainer(
+                        client, session.getStorageUrl(), containerName, params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder.headers(headers);
+                }
+                final Response response = builder.post(null);
+                try {
+                    return invalidating(containerName, null, function)
+                            .apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -783,23 +892,29 @@ public class StorageClientWsRs
                                  final MultivaluedMap<String, Object> params,
                                  final MultivaluedMap<String, Object> headers,
                                  final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            final Invocation.Builder builder = buildContainer(
-                    client, getStorageUrl(), containerName, params, getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder.headers(headers);
-            }
-            final Response response = builder.delete();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                final Invocation.Builder builder = buildContainer(
+                        client, session.getStorageUrl(), containerName, params,
+                        session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder.headers(headers);
+                }
+                final Response response = builder.delete();
+                try {
+                    return invalidating(containerName, null, function)
+                            .apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -817,24 +932,28 @@ public class StorageClientWsRs
             final MultivaluedMap<String, Object> params,
             final MultivaluedMap<String, Object> headers,
             final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildObject(
-                    client, getStorageUrl(), containerName, objectName, params,
-                    getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.head();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildObject(
+                        client, session.getStorageUrl(), containerName,
+                        objectName, params, session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.head();
+                try {
+                    return function.apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -850,24 +969,28 @@ public class StorageClientWsRs
                             final MultivaluedMap<String, Object> params,
                             final MultivaluedMap<String, Object> headers,
                             final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildObject(
-                    client, getStorageUrl(), containerName, objectName, params,
-                    getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.get();
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildObject(
+                        client, session.getStorageUrl(), containerName,
+                        objectName, params, session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.get();
+                try {
+                    return function.apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -922,23 +1045,26 @@ public class StorageClientWsRs
             final MultivaluedMap<String, Object> headers,
             final Function<Invocation.Builder, Response> function1,
             final Function<Response, R> function2) {
+        final Session session = getSession();
         final Client client = getClient();
         try {
             Invocation.Builder builder = buildObject(
-                    client, getStorageUrl(), containerName, objectName, params,
-                    getAuthToken());
+                    client, session.getStorageUrl(), containerName,
+                    objectName, params, session.getAuthToken());
             if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
+                headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                  session.getAuthToken());
                 builder = builder.headers(headers);
             }
             final Response response = function1.apply(builder);
             try {
-                return function2.apply(response);
+                return invalidating(containerName, objectName, function2)
+                        .apply(authorized(response));
             } finally {
                 response.close();
             }
         } finally {
-            client.close();
+            release(client);
         }
     }
 
@@ -953,29 +1079,185 @@ public class StorageClientWsRs
                             multivalued(headers), function1, function2);
     }
 
+    /**
+     * Updates an object with a region of given file channel. The request has a
+     * {@code Content-Length} header and the entity is written with
+     * {@link FileChannel#transferTo(long, long,
+     * java.nio.channels.WritableByteChannel)}. A compressed entity has no
+     * {@code Content-Length} header. Note that whether the entity is buffered,
+     * chunked or streamed with the fixed length depends on the configuration
+     * of the JAX-RS implementation in use.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param channel the channel to read
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results.
+     */
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final MultivaluedMap<String, Object> params,
+            final MultivaluedMap<String, Object> headers,
+            final FileChannel channel, final long position, final long count,
+            final Function<Response, R> function) {
+        return replaying(() -> {
+            MediaType type = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+            if (headers != null) {
+                for (final Entry<String, List<Object>> entry
+                     : headers.entrySet()) {
+                    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(
+                            entry.getKey())
+                        && !entry.getValue().isEmpty()) {
+                        type = MediaType.valueOf(
+                                entry.getValue().get(0).toString());
+                    }
+                }
+            }
+            final MessageDigest digest = uploadDigest(headers);
+            if (compressing(headers)) {
+                final Entity<StreamingOutput> entity = Entity.entity(o -> {
+                    try (GZIPOutputStream output = new GZIPOutputStream(
+                            unclosing(digested(o, digest)))) {
+                        transfer(channel, position, count, output);
+                    }
+                }, type);
+                return updateObject(
+                        containerName, objectName, params, headers,
+                        b -> b.header(HEADER_CONTENT_ENCODING, ENCODING_GZIP)
+                                .put(entity),
+                        verifying(digest, function));
+            }
+            final Entity<StreamingOutput> entity = Entity.entity(
+                    o -> transfer(channel, position, count,
+                                  digested(o, digest)),
+                    type);
+            return updateObject(
+                    containerName, objectName, params, headers,
+                    b -> b.header(HttpHeaders.CONTENT_LENGTH, count)
+                            .put(entity),
+                    verifying(digest, function));
+        });
+    }
+
+    @Override
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers, final FileChannel channel,
+            final long position, final long count,
+            final Function<Response, R> function) {
+        return updateObject(containerName, objectName, multivalued(params),
+                            multivalued(headers), channel, position, count,
+                            function);
+    }
+
+    /**
+     * Copies an object on the server side. A {@code PUT} request without an
+     * entity is rejected by some implementations and an entity always carries
+     * a media type which the server takes as the type of the destination.
+     * Hence the empty entity is sent with the {@code Content-Type} in given
+     * headers, if any, or with the type of the source object peeked with a
+     * {@code HEAD} request.
+     *
+     * @param <R> result type parameter
+     * @param sourceContainerName the container name of the source object
+     * @param sourceObjectName the name of the source object
+     * @param containerName the container name of the destination object
+     * @param objectName the name of the destination object
+     * @param headers request headers; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results.
+     */
+    public <R> R copyObject(final String sourceContainerName,
+                            final String sourceObjectName,
+                            final String containerName,
+                            final String objectName,
+                            final MultivaluedMap<String, Object> headers,
+                            final Function<Response, R> function) {
+        return replaying(() -> {
+            final MultivaluedMap<String, Object> headers_
+                    = new MultivaluedHashMap<>();
+            Object contentType = null;
+            if (headers != null) {
+                for (final Entry<String, List<Object>> entry
+                     : headers.entrySet()) {
+                    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(
+                            entry.getKey())) {
+                        contentType = entry.getValue().isEmpty()
+                                      ? null : entry.getValue().get(0);
+                        continue;
+                    }
+                    headers_.put(entry.getKey(), entry.getValue());
+                }
+            }
+            final MediaType mediaType = contentType != null
+                                        ? MediaType.valueOf(
+                                                contentType.toString())
+                                        : peekObject(
+                                                sourceContainerName,
+                                                sourceObjectName,
+                                                new MultivaluedHashMap<>(),
+                                                null,
+                                                r -> r.getStatus() == 200
+                                                     ? r.getMediaType()
+                                                     : null);
+            headers_.putSingle(HEADER_X_COPY_FROM,
+                               copySource(sourceContainerName,
+                                          sourceObjectName));
+            final Entity<byte[]> entity = Entity.entity(
+                    new byte[0], mediaType == null
+                                 ? MediaType.APPLICATION_OCTET_STREAM_TYPE
+                                 : mediaType);
+            return updateObject(containerName, objectName, null, headers_,
+                                b -> b.put(entity), function);
+        });
+    }
+
+    @Override
+    public <R> R copyObject(final String sourceContainerName,
+                            final String sourceObjectName,
+                            final String containerName,
+                            final String objectName,
+                            final Map<String, List<Object>> headers,
+                            final Function<Response, R> function) {
+        return copyObject(sourceContainerName, sourceObjectName,
+                          containerName, objectName, multivalued(headers),
+                          function);
+    }
+
     public <R> R configureObject(final String containerName,
                                  final String objectName,
                                  final MultivaluedMap<String, Object> params,
                                  final MultivaluedMap<String, Object> headers,
                                  final Function<Response, R> function) {
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildObject(
-                    client, getStorageUrl(), containerName, objectName, params,
-                    getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.post(null);
+        return replaying(() -> {
+            final Session session = getSession();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildObject(
+                        client, session.getStorageUrl(), containerName,
+                        objectName, params, session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.post(null);
+                try {
+                    return invalidating(containerName, objectName, function)
+                            .apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -1006,25 +1288,30 @@ public class StorageClientWsRs
                               final MultivaluedMap<String, Object> params,
                               final MultivaluedMap<String, Object> headers,
                               final Function<Response, R> function) {
-//        ensureValid();
-        final Client client = getClient();
-        try {
-            Invocation.Builder builder = buildObject(
-                    client, getStorageUrl(), containerName, objectName, params,
-                    getAuthToken());
-            if (headers != null) {
-                headers.putSingle(HEADER_X_AUTH_TOKEN, getAuthToken());
-                builder = builder.headers(headers);
-            }
-            final Response response = builder.delete();
+        return replaying(() -> {
+            final Session session = getSession();
+    //        ensureValid();
+            final Client client = getClient();
             try {
-                return function.apply(response);
+                Invocation.Builder builder = buildObject(
+                        client, session.getStorageUrl(), containerName,
+                        objectName, params, session.getAuthToken());
+                if (headers != null) {
+                    headers.putSingle(HEADER_X_AUTH_TOKEN,
+                                      session.getAuthToken());
+                    builder = builder.headers(headers);
+                }
+                final Response response = builder.delete();
+                try {
+                    return invalidating(containerName, objectName, function)
+                            .apply(authorized(response));
+                } finally {
+                    response.close();
+                }
             } finally {
-                response.close();
+                release(client);
             }
-        } finally {
-            client.close();
-        }
+        });
     }
 
     @Override
@@ -1058,7 +1345,7 @@ public class StorageClientWsRs
                 response.close();
             }
         } finally {
-            client.close();
+            release(client);
         }
     }
 
@@ -1091,7 +1378,7 @@ public class StorageClientWsRs
                 response.close();
             }
         } finally {
-            client.close();
+            release(client);
         }
     }
 
@@ -1130,7 +1417,7 @@ public class StorageClientWsRs
                 response.close();
             }
         } finally {
-            client.close();
+            release(client);
         }
     }
 
@@ -1164,7 +1451,7 @@ public class StorageClientWsRs
                 response.close();
             }
         } finally {
-            client.close();;
+            release(client);
         }
     }
 
@@ -1198,7 +1485,7 @@ public class StorageClientWsRs
                 response.close();
             }
         } finally {
-            client.close();
+            release(client);
         }
     }
 
@@ -1209,6 +1496,253 @@ public class StorageClientWsRs
         return readGroups(multivalued(params), multivalued(headers), function);
     }
 
+    // ------------------------------------------------------------------- async
+    /**
+     * Invokes a request asynchronously, using
+     * {@link Invocation.Builder#async()}, and applies the server response to
+     * specified function. No thread is blocked while the request is in flight.
+     * When the {@link #isReauthentication() reauthentication} is on, a
+     * request responded with {@code 401} is built and invoked once more after
+     * {@link #reauthenticateAsync(java.lang.String) re-authenticated}.
+     *
+     * @param <R> result type parameter
+     * @param builder a function for building the request with a client
+     * @param method the request method
+     * @param entity the request entity; may be {@code null}
+     * @param function a function to be applied with the server response
+     * @return a future of the value the {@code function} results
+     */
+    protected <R> CompletableFuture<R> applyAsync(
+            final Function<Client, Invocation.Builder> builder,
+            final String method, final Entity<?> entity,
+            final Function<Response, R> function) {
+        return applyAsync(builder, method, entity, function,
+                          isReauthentication());
+    }
+
+    private <R> CompletableFuture<R> applyAsync(
+            final Function<Client, Invocation.Builder> builder,
+            final String method, final Entity<?> entity,
+            final Function<Response, R> function, final boolean replay) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        final Client client = getClient();
+        final String used = getAuthToken();
+        final InvocationCallback<Response> callback
+                = new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                recorded(response);
+                if (replay && response.getStatus() == 401) {
+                    response.close();
+                    release(client);
+                    reauthenticateAsync(used)
+                            .thenCompose(s -> applyAsync(
+                                    builder, method, entity, function, false))
+                            .whenComplete((r, t) -> {
+                                if (t != null) {
+                                    future.completeExceptionally(
+                                            t instanceof CompletionException
+                                            ? t.getCause() : t);
+                                } else {
+                                    future.complete(r);
+                                }
+                            });
+                    return;
+                }
+                try {
+                    future.complete(function.apply(response));
+                } catch (final Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    response.close();
+                    release(client);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                release(client);
+                future.completeExceptionally(throwable);
+            }
+        };
+        try {
+            final AsyncInvoker invoker = builder.apply(client).async();
+            if (entity == null) {
+                invoker.method(method, callback);
+            } else {
+                invoker.method(method, entity, callback);
+            }
+        } catch (final RuntimeException re) {
+            release(client);
+            future.completeExceptionally(re);
+        }
+        return future;
+    }
+
+    private Invocation.Builder storage(final Client client,
+                                       final Map<String, List<Object>> params,
+                                       final Map<String, List<Object>> headers) {
+        final Session session = getSession();
+        final Invocation.Builder builder = buildStorage(
+                client, session.getStorageUrl(), multivalued(params),
+                session.getAuthToken());
+        return headers(builder, multivalued(headers), session.getAuthToken());
+    }
+
+    private Invocation.Builder container(
+            final Client client, final String containerName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers) {
+        final Session session = getSession();
+        final Invocation.Builder builder = buildContainer(
+                client, session.getStorageUrl(), containerName,
+                multivalued(params), session.getAuthToken());
+        return headers(builder, multivalued(headers), session.getAuthToken());
+    }
+
+    private Invocation.Builder object(
+            final Client client, final String containerName,
+            final String objectName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers) {
+        final Session session = getSession();
+        final Invocation.Builder builder = buildObject(
+                client, session.getStorageUrl(), containerName, objectName,
+                multivalued(params), session.getAuthToken());
+        return headers(builder, multivalued(headers), session.getAuthToken());
+    }
+
+    private Invocation.Builder headers(
+            final Invocation.Builder builder,
+            final MultivaluedMap<String, Object> headers,
+            final String authToken) {
+        if (headers == null) {
+            return builder;
+        }
+        headers.putSingle(HEADER_X_AUTH_TOKEN, authToken);
+        return builder.headers(headers);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> peekStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> storage(c, params, headers),
+                          HEAD, null, function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> storage(c, params, headers),
+                          GET, null, function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> configureStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> storage(c, params, headers),
+                          POST, null, invalidating(null, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> peekContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> container(c, containerName, params, headers),
+                          HEAD, null, function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> container(c, containerName, params, headers),
+                          GET, null, function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> updateContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> container(c, containerName, params, headers),
+                          PUT, Entity.text(""),
+                          invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> configureContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> container(c, containerName, params, headers),
+                          POST, null,
+                          invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(c -> container(c, containerName, params, headers),
+                          DELETE, null,
+                          invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> peekObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(
+                c -> object(c, containerName, objectName, params, headers),
+                HEAD, null, function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(
+                c -> object(c, containerName, objectName, params, headers),
+                GET, null, function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> configureObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(
+                c -> object(c, containerName, objectName, params, headers),
+                POST, null,
+                invalidating(containerName, objectName, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<Response, R> function) {
+        return applyAsync(
+                c -> object(c, containerName, objectName, params, headers),
+                DELETE, null,
+                invalidating(containerName, objectName, function));
+    }
+
     // ---------------------------------------------------------- clientSupplier
     public Supplier<Client> getClientSupplier() {
         return clientSupplier;
@@ -1224,17 +1758,103 @@ public class StorageClientWsRs
         return this;
     }
 
+    // ------------------------------------------------------------ sharedClient
+    /**
+     * Returns the client shared across requests.
+     *
+     * @return the shared client or {@code null} if not set
+     */
+    public Client getSharedClient() {
+        return sharedClient;
+    }
+
+    /**
+     * Replaces the client shared across requests. Any previously shared client
+     * is closed unless the {@link #isSharedClientClosing() sharedClientClosing}
+     * is off. Pass {@code null} for creating a new client, using the
+     * {@link #getClientSupplier() client supplier}, for each request.
+     *
+     * @param sharedClient new shared client; may be {@code null}
+     */
+    public void setSharedClient(final Client sharedClient) {
+        final Client previous = this.sharedClient;
+        this.sharedClient = sharedClient;
+        if (previous != null && previous != sharedClient
+            && sharedClientClosing) {
+            previous.close();
+        }
+    }
+
+    public StorageClientWsRs sharedClient(final Client sharedClient) {
+        setSharedClient(sharedClient);
+        return this;
+    }
+
+    // ----------------------------------------------------- sharedClientClosing
+    /**
+     * Returns whether the shared client is closed when replaced or when this
+     * client is closed. The default value is {@code true}.
+     *
+     * @return {@code true} if the shared client is closed; {@code false}
+     * otherwise
+     */
+    public boolean isSharedClientClosing() {
+        return sharedClientClosing;
+    }
+
+    /**
+     * Sets whether the shared client is closed when replaced or when this
+     * client is closed. Turn it off when the shared client is shared by other
+     * storage clients as well, e.g. of other accounts, and closed by its
+     * owner.
+     *
+     * @param sharedClientClosing new value
+     * @see com.github.jinahya.kt.ucloud.storage.client.StorageClientRegistry
+     */
+    public void setSharedClientClosing(final boolean sharedClientClosing) {
+        this.sharedClientClosing = sharedClientClosing;
+    }
+
+    public StorageClientWsRs sharedClientClosing(
+            final boolean sharedClientClosing) {
+        setSharedClientClosing(sharedClientClosing);
+        return this;
+    }
+
     // ------------------------------------------------------------------ client
+    /**
+     * Returns a client for a request. This method returns the
+     * {@link #getSharedClient() shared client} if set, otherwise a new client
+     * supplied by the {@link #getClientSupplier() client supplier}.
+     *
+     * @return a client
+     */
     protected Client getClient() {
+        final Client shared = sharedClient;
+        if (shared != null) {
+            return shared;
+        }
         return getClientSupplier().get();
     }
 
+    /**
+     * Releases given client acquired by {@link #getClient()}. This method
+     * closes the client unless it is the shared one.
+     *
+     * @param client the client to release
+     */
+    protected void release(final Client client) {
+        if (client != sharedClient) {
+            client.close();
+        }
+    }
+
     protected <R> R apply(final Function<Client, R> function) {
         final Client client = getClient();
         try {
             return function.apply(client);
         } finally {
-            client.close();
+            release(client);
         }
     }
 
@@ -1255,6 +1875,21 @@ public class StorageClientWsRs
         return accept(c -> consumer.accept(c, supplier.get()));
     }
 
+    // -------------------------------------------------------------------------
+    /**
+     * Closes the {@link #getSharedClient() shared client}, if any, unless the
+     * {@link #isSharedClientClosing() sharedClientClosing} is off.
+     */
+    @Override
+    public void close() {
+        setSharedClient(null);
+        super.close();
+    }
+
     // -------------------------------------------------------------------------
     private Supplier<Client> clientSupplier = () -> ClientBuilder.newClient();
+
+    private volatile Client sharedClient;
+
+    private volatile boolean sharedClientClosing = true;
 }
@@ -0,0 +1,861 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client.net.http;
+
+import com.github.jinahya.kt.ucloud.storage.client.Session;
+import com.github.jinahya.kt.ucloud.storage.client.StorageClient;
+import com.github.jinahya.kt.ucloud.storage.client.StorageClientException;
+import static com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet.buildAccount;
+import static com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet.buildContainer;
+import static com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet.buildObject;
+import static com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet.buildStorage;
+import static com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet.buildUser;
+import java.io.IOException;
+import java.io.InputStream;
+import static java.lang.invoke.MethodHandles.lookup;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import static java.net.http.HttpRequest.BodyPublishers.noBody;
+import java.net.http.HttpResponse;
+import static java.net.http.HttpResponse.BodyHandlers.ofInputStream;
+import java.nio.channels.FileChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import static java.util.Collections.singletonList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import static java.util.logging.Level.FINEST;
+import java.util.logging.Logger;
+import static java.util.logging.Logger.getLogger;
+
+/**
+ * A client for accessing kt ucloud storage using classes in
+ * {@code java.net.http}. Requests are sent with HTTP/2 where the server
+ * supports it so that concurrent requests are multiplexed on a single
+ * connection.
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class StorageClientNetHttp
+        extends StorageClient<StorageClientNetHttp, HttpRequest.Builder, HttpResponse<InputStream>> {
+
+    private static final Logger logger
+            = getLogger(lookup().lookupClass().getName());
+
+    /**
+     * Creates a new {@code HttpClient} which prefers HTTP/2.
+     *
+     * @return a new {@code HttpClient}
+     */
+    public static HttpClient newHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Creates a request builder for given URI with specified headers.
+     *
+     * @param uri the URI
+     * @param headers request headers; may be {@code null}
+     * @return a request builder
+     */
+    public static HttpRequest.Builder request(
+            final CharSequence uri, final Map<String, List<Object>> headers) {
+        final HttpRequest.Builder builder
+                = HttpRequest.newBuilder(URI.create(uri.toString()));
+        if (headers != null) {
+            headers.forEach((n, vs) -> vs.forEach(
+                    v -> builder.header(n, String.valueOf(v))
+            ));
+        }
+        return builder;
+    }
+
+    /**
+     * Reads and discards at most {@value #DRAIN_LIMIT} remaining bytes of
+     * given response's body and closes it. Closing a body which is not read
+     * to the end closes the connection rather than returning it to the pool.
+     *
+     * @param response the response
+     */
+    private static void release(final HttpResponse<InputStream> response) {
+        try (InputStream body = response.body()) {
+            if (!drain(body)) {
+                logger.log(FINEST, "too much to drain; closing");
+            }
+        } catch (final IOException ioe) {
+            // e.g. the body has already been closed by the caller
+            logger.log(FINEST, "failed to release a response", ioe);
+        }
+    }
+
+    /**
+     * Returns a body publisher of a region of given file channel. The publisher
+     * knows its length and reads the region with positional reads.
+     *
+     * @param channel the channel
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @return a body publisher
+     */
+    public static BodyPublisher publisher(final FileChannel channel,
+                                          final long position,
+                                          final long count) {
+        return publisher(channel, position, count, null);
+    }
+
+    /**
+     * Returns a body publisher of a region of given file channel which updates
+     * specified digest with the bytes published. The digest is reset whenever
+     * the region is published again.
+     *
+     * @param channel the channel
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @param digest the digest; may be {@code null}
+     * @return a body publisher
+     */
+    public static BodyPublisher publisher(final FileChannel channel,
+                                          final long position,
+                                          final long count,
+                                          final MessageDigest digest) {
+        if (count == 0L) {
+            return noBody();
+        }
+        return BodyPublishers.fromPublisher(
+                BodyPublishers.ofInputStream(() -> {
+                    final InputStream input
+                            = newInputStream(channel, position, count);
+                    if (digest == null) {
+                        return input;
+                    }
+                    digest.reset();
+                    return new DigestInputStream(input, digest);
+                }),
+                count);
+    }
+
+    /**
+     * Returns a body publisher of the gzip encoding of a region of given file
+     * channel. The region is compressed as it is published and the digest, if
+     * specified, is updated with the compressed bytes. The body has no length.
+     *
+     * @param channel the channel
+     * @param position the starting position of the region
+     * @param count the number of bytes of the region
+     * @param digest the digest; may be {@code null}
+     * @return a body publisher
+     */
+    public static BodyPublisher gzipped(final FileChannel channel,
+                                        final long position,
+                                        final long count,
+                                        final MessageDigest digest) {
+        return BodyPublishers.ofInputStream(() -> {
+            final InputStream input
+                    = gzipped(newInputStream(channel, position, count));
+            if (digest == null) {
+                return input;
+            }
+            digest.reset();
+            return new DigestInputStream(input, digest);
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Creates a new instance with a {@link #newHttpClient() new HTTP client}.
+     *
+     * @param authUrl a URL for authentication
+     * @param authUser username
+     * @param authKey password
+     */
+    public StorageClientNetHttp(final String authUrl, final String authUser,
+                                final String authKey) {
+        this(authUrl, authUser, authKey, newHttpClient());
+    }
+
+    /**
+     * Creates a new instance with given HTTP client.
+     *
+     * @param authUrl a URL for authentication
+     * @param authUser username
+     * @param authKey password
+     * @param httpClient the HTTP client to send requests with
+     */
+    public StorageClientNetHttp(final String authUrl, final String authUser,
+                                final String authKey,
+                                final HttpClient httpClient) {
+        super(authUrl, authUser, authKey);
+        this.httpClient = requireNonNull(httpClient, "null httpClient");
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public int getStatusCode(final HttpResponse<InputStream> response) {
+        return response.statusCode();
+    }
+
+    @Override
+    public String getHeaderValue(final HttpResponse<InputStream> response,
+                                 final String name) {
+        return response.headers().firstValue(name).orElse(null);
+    }
+
+    @Override
+    public InputStream getRawEntityStream(
+            final HttpResponse<InputStream> response) {
+        return response.body();
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Sends given request and returns the response.
+     *
+     * @param request the request
+     * @return the response
+     */
+    public HttpResponse<InputStream> send(final HttpRequest request) {
+        try {
+            return httpClient.send(request, ofInputStream());
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new StorageClientException(ie);
+        }
+    }
+
+    /**
+     * Builds a request from given builder, sends it and returns the response.
+     * This method is for the {@code function1} of
+     * {@link #updateObject(java.lang.String, java.lang.String, java.util.Map, java.util.Map, java.util.function.Function, java.util.function.Function)}.
+     *
+     * @param builder the builder
+     * @return the response
+     */
+    public HttpResponse<InputStream> send(final HttpRequest.Builder builder) {
+        return send(builder.build());
+    }
+
+    /**
+     * Sends given request asynchronously.
+     *
+     * @param request the request
+     * @return a future of the response
+     * @see HttpClient#sendAsync(java.net.http.HttpRequest,
+     * java.net.http.HttpResponse.BodyHandler)
+     */
+    public CompletableFuture<HttpResponse<InputStream>> sendAsync(
+            final HttpRequest request) {
+        return httpClient.sendAsync(request, ofInputStream());
+    }
+
+    /**
+     * Sends given request and applies the response to specified function.
+     *
+     * @param <R> result type parameter
+     * @param request the request
+     * @param function the function
+     * @return the value the {@code function} results
+     */
+    protected <R> R apply(final HttpRequest request,
+                          final Function<HttpResponse<InputStream>, R> function) {
+        final HttpResponse<InputStream> response = recorded(send(request));
+        try {
+            return function.apply(response);
+        } finally {
+            release(response);
+        }
+    }
+
+    /**
+     * Sends given request asynchronously and applies the response to specified
+     * function.
+     *
+     * @param <R> result type parameter
+     * @param request the request
+     * @param function the function
+     * @return a future of the value the {@code function} results
+     */
+    protected <R> CompletableFuture<R> applyAsync(
+            final HttpRequest request,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return sendAsync(request).thenApply(response -> {
+            try {
+                return function.apply(recorded(response));
+            } finally {
+                release(response);
+            }
+        });
+    }
+
+    // -------------------------------------------------------------------------
+    private HttpRequest.Builder storage(final Map<String, List<Object>> params,
+                                        final Map<String, List<Object>> headers) {
+        final Session session = getSession();
+        return request(buildStorage(session.getStorageUrl(), params), headers)
+                .setHeader(HEADER_X_AUTH_TOKEN, session.getAuthToken());
+    }
+
+    private HttpRequest.Builder container(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers) {
+        final Session session = getSession();
+        return request(buildContainer(session.getStorageUrl(), containerName,
+                                      params),
+                       headers)
+                .setHeader(HEADER_X_AUTH_TOKEN, session.getAuthToken());
+    }
+
+    private HttpRequest.Builder object(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers) {
+        final Session session = getSession();
+        return request(buildObject(session.getStorageUrl(), containerName,
+                                   objectName, params),
+                       headers)
+                .setHeader(HEADER_X_AUTH_TOKEN, session.getAuthToken());
+    }
+
+    private HttpRequest.Builder account(
+            final CharSequence uri, final Map<String, List<Object>> headers) {
+        return request(uri, headers)
+                .setHeader(HEADER_X_AUTH_ADMIN_USER, getAuthUser())
+                .setHeader(HEADER_X_AUTH_ADMIN_KEY, getAuthKey());
+    }
+
+    private HttpRequest.Builder authentication(final boolean newToken) {
+        final HttpRequest.Builder builder = request(getAuthUrl(), null)
+                .header(HEADER_X_AUTH_USER, getAuthUser())
+                .header(HEADER_X_AUTH_KEY, getAuthKey());
+        if (newToken) {
+            builder.header(HEADER_X_AUTH_NEW_TOKEN, Boolean.TRUE.toString());
+        }
+        return builder.GET();
+    }
+
+    private <R> Function<HttpResponse<InputStream>, R> authenticated(
+            final Function<HttpResponse<InputStream>, R> function) {
+        return r -> {
+            if (r.statusCode() != 200) {
+                throw new StorageClientException(
+                        "failed to authenticate user; " + r.statusCode());
+            }
+            setSession(r.headers().firstValue(HEADER_X_STORAGE_URL)
+                               .orElse(null),
+                       r.headers().firstValue(HEADER_X_AUTH_TOKEN)
+                               .orElse(null),
+                       r.headers().firstValue(HEADER_X_AUTH_TOKEN_EXPIRES)
+                               .orElse(null));
+            return function.apply(r);
+        };
+    }
+
+    // -------------------------------------------------------------------------
+    @Override
+    public <R> R authenticateUser(
+            final boolean newToken,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(authentication(newToken).build(),
+                     authenticated(function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> authenticateUserAsync(
+            final boolean newToken,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(authentication(newToken).build(),
+                          authenticated(function));
+    }
+
+    // ---------------------------------------------------------------- /storage
+    @Override
+    public <R> R peekStorage(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(storage(params, headers).method("HEAD", noBody()).build(),
+                     function);
+    }
+
+    @Override
+    public <R> R readStorage(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(storage(params, headers).GET().build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(storage(params, headers).GET().build(), function);
+    }
+
+    @Override
+    public <R> R configureStorage(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(storage(params, headers).POST(noBody()).build(),
+                     invalidating(null, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> configureStorageAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(storage(params, headers).POST(noBody()).build(),
+                          invalidating(null, null, function));
+    }
+
+    // ------------------------------------------------------ /storage/container
+    @Override
+    public <R> R peekContainer(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(container(containerName, params, headers)
+                .method("HEAD", noBody()).build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> peekContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(container(containerName, params, headers)
+                .method("HEAD", noBody()).build(), function);
+    }
+
+    @Override
+    public <R> R readContainer(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(container(containerName, params, headers).GET().build(),
+                     function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(container(containerName, params, headers).GET().build(),
+                          function);
+    }
+
+    @Override
+    public <R> R updateContainer(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(container(containerName, params, headers)
+                .PUT(noBody()).build(),
+                     invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> updateContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(container(containerName, params, headers)
+                .PUT(noBody()).build(),
+                          invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> R configureContainer(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(container(containerName, params, headers)
+                .POST(noBody()).build(),
+                     invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> configureContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(container(containerName, params, headers)
+                .POST(noBody()).build(),
+                          invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> R deleteContainer(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(container(containerName, params, headers)
+                .DELETE().build(),
+                     invalidating(containerName, null, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteContainerAsync(
+            final String containerName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(container(containerName, params, headers)
+                .DELETE().build(),
+                          invalidating(containerName, null, function));
+    }
+
+    // ----------------------------------------------- /storage/container/object
+    @Override
+    public <R> R peekObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(object(containerName, objectName, params, headers)
+                .method("HEAD", noBody()).build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> peekObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(object(containerName, objectName, params, headers)
+                .method("HEAD", noBody()).build(), function);
+    }
+
+    @Override
+    public <R> R readObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(object(containerName, objectName, params, headers)
+                .GET().build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(object(containerName, objectName, params, headers)
+                .GET().build(), function);
+    }
+
+    /**
+     * Updates an object using the {@code PUT} method. The {@code function1}
+     * should set the method and the body of given builder and
+     * {@link #send(java.net.http.HttpRequest.Builder) send} it.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param function1 a function for sending the request
+     * @param function2 a function to be applied with the server response
+     * @return the value the {@code function2} results.
+     */
+    @Override
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpRequest.Builder, HttpResponse<InputStream>> function1,
+            final Function<HttpResponse<InputStream>, R> function2) {
+        final HttpResponse<InputStream> response = function1.apply(
+                object(containerName, objectName, params, headers));
+        try {
+            return invalidating(containerName, objectName, function2)
+                    .apply(response);
+        } finally {
+            release(response);
+        }
+    }
+
+    /**
+     * Updates an object with given body using the {@code PUT} method.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param body the request body
+     * @param function a function to be applied with the server response
+     * @return the value the {@code function} results.
+     */
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers, final BodyPublisher body,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(object(containerName, objectName, params, headers)
+                .PUT(body).build(),
+                     invalidating(containerName, objectName, function));
+    }
+
+    /**
+     * {@inheritDoc} The region is published with its length so that the
+     * request has a {@code Content-Length} header unless compressed.
+     */
+    @Override
+    public <R> R updateObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers, final FileChannel channel,
+            final long position, final long count,
+            final Function<HttpResponse<InputStream>, R> function) {
+        final MessageDigest digest = uploadDigest(headers);
+        if (compressing(headers)) {
+            final Map<String, List<Object>> headers_ = headers == null
+                                                       ? new HashMap<>()
+                                                       : new HashMap<>(headers);
+            headers_.put(HEADER_CONTENT_ENCODING, singletonList(ENCODING_GZIP));
+            return updateObject(containerName, objectName, params, headers_,
+                                gzipped(channel, position, count, digest),
+                                verifying(digest, function));
+        }
+        return updateObject(containerName, objectName, params, headers,
+                            publisher(channel, position, count, digest),
+                            verifying(digest, function));
+    }
+
+    /**
+     * Updates an object with given body asynchronously.
+     *
+     * @param <R> result type parameter
+     * @param containerName a container name
+     * @param objectName an object name
+     * @param params query parameters; may be {@code null}
+     * @param headers request headers; may be {@code null}
+     * @param body the request body
+     * @param function a function to be applied with the server response
+     * @return a future of the value the {@code function} results.
+     */
+    public <R> CompletableFuture<R> updateObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers, final BodyPublisher body,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(object(containerName, objectName, params, headers)
+                .PUT(body).build(),
+                          invalidating(containerName, objectName, function));
+    }
+
+    @Override
+    public <R> R copyObject(
+            final String sourceContainerName, final String sourceObjectName,
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        final Map<String, List<Object>> headers_ = headers == null
+                                                   ? new HashMap<>()
+                                                   : new HashMap<>(headers);
+        headers_.put(HEADER_X_COPY_FROM, singletonList(
+                     copySource(sourceContainerName, sourceObjectName)));
+        return updateObject(containerName, objectName, null, headers_,
+                            noBody(), function);
+    }
+
+    @Override
+    public <R> R configureObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(object(containerName, objectName, params, headers)
+                .POST(noBody()).build(),
+                     invalidating(containerName, objectName, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> configureObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(object(containerName, objectName, params, headers)
+                .POST(noBody()).build(),
+                          invalidating(containerName, objectName, function));
+    }
+
+    @Override
+    public <R> R deleteObject(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(object(containerName, objectName, params, headers)
+                .DELETE().build(),
+                     invalidating(containerName, objectName, function));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteObjectAsync(
+            final String containerName, final String objectName,
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(object(containerName, objectName, params, headers)
+                .DELETE().build(),
+                          invalidating(containerName, objectName, function));
+    }
+
+    // ---------------------------------------------------------------- /account
+    @Override
+    public <R> R readAccount(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(account(buildAccount(getAccountUrl(), params), headers)
+                .GET().build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readAccountAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(account(buildAccount(getAccountUrl(), params), headers)
+                .GET().build(), function);
+    }
+
+    // ----------------------------------------------------------- /account/user
+    @Override
+    public <R> R readUser(
+            final String userName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(account(buildUser(getAccountUrl(), userName, params),
+                             headers)
+                .GET().build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readUserAsync(
+            final String userName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(account(buildUser(getAccountUrl(), userName, params),
+                                  headers)
+                .GET().build(), function);
+    }
+
+    @Override
+    public <R> R updateUser(
+            final String userName, final String userKey,
+            final boolean userAdmin, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        final HttpRequest.Builder builder
+                = account(buildUser(getAccountUrl(), userName, params), headers)
+                .setHeader(HEADER_X_AUTH_USER_KEY, userKey);
+        if (userAdmin) {
+            builder.setHeader(HEADER_X_AUTH_USER_ADMIN,
+                              Boolean.toString(userAdmin));
+        }
+        return apply(builder.PUT(noBody()).build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> updateUserAsync(
+            final String userName, final String userKey,
+            final boolean userAdmin, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        final HttpRequest.Builder builder
+                = account(buildUser(getAccountUrl(), userName, params), headers)
+                .setHeader(HEADER_X_AUTH_USER_KEY, userKey);
+        if (userAdmin) {
+            builder.setHeader(HEADER_X_AUTH_USER_ADMIN,
+                              Boolean.toString(userAdmin));
+        }
+        return applyAsync(builder.PUT(noBody()).build(), function);
+    }
+
+    @Override
+    public <R> R deleteUser(
+            final String userName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(account(buildUser(getAccountUrl(), userName, params),
+                             headers)
+                .DELETE().build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> deleteUserAsync(
+            final String userName, final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(account(buildUser(getAccountUrl(), userName, params),
+                                  headers)
+                .DELETE().build(), function);
+    }
+
+    // -------------------------------------------------------- /account/.groups
+    @Override
+    public <R> R readGroups(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return apply(account(buildUser(getAccountUrl(), ".groups", params),
+                             headers)
+                .GET().build(), function);
+    }
+
+    @Override
+    public <R> CompletableFuture<R> readGroupsAsync(
+            final Map<String, List<Object>> params,
+            final Map<String, List<Object>> headers,
+            final Function<HttpResponse<InputStream>, R> function) {
+        return applyAsync(account(buildUser(getAccountUrl(), ".groups", params),
+                                  headers)
+                .GET().build(), function);
+    }
+
+    // -------------------------------------------------------------- httpClient
+    /**
+     * Returns the HTTP client this client sends requests with.
+     *
+     * @return the HTTP client
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    // -------------------------------------------------------------------------
+    private final HttpClient httpClient;
+}
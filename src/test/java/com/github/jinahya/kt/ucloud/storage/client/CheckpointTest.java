@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class CheckpointTest {
+
+    @Test
+    public void storeAndLoad() throws IOException {
+        final Path directory = Files.createTempDirectory(null);
+        try {
+            final Path sidecar
+                    = Checkpoint.sidecar(directory.resolve("object"));
+            assertNull(Checkpoint.load(sidecar));
+            new Checkpoint("d41d8cd98f00b204e9800998ecf8427e", 8L)
+                    .store(sidecar);
+            new Checkpoint("d41d8cd98f00b204e9800998ecf8427e", 16L)
+                    .store(sidecar);
+            final Checkpoint loaded = Checkpoint.load(sidecar);
+            assertEquals(loaded.etag, "d41d8cd98f00b204e9800998ecf8427e");
+            assertEquals(loaded.offset, 16L);
+            Files.delete(sidecar);
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Reads an object which is changed, i.e. {@code 412}, whenever a reading
+     * is resumed.
+     */
+    @Test
+    public void restartsAtMostTransferRetries() throws IOException {
+        final Path directory = Files.createTempDirectory(null);
+        final Path path = directory.resolve("object");
+        final Path sidecar = Checkpoint.sidecar(path);
+        final AtomicInteger reads = new AtomicInteger();
+        final StorageClientNet client = new StorageClientNet(
+                "https://localhost", "user", "key") {
+            @Override
+            public <R> R readObject(
+                    final String containerName, final String objectName,
+                    final Map<String, List<Object>> params,
+                    final Map<String, List<Object>> headers,
+                    final Function<URLConnection, R> function) {
+                reads.incrementAndGet();
+                try {
+                    return function.apply(null);
+                } finally {
+                    // as if the reading has been interrupted again
+                    try {
+                        new Checkpoint("etag", 1L).store(sidecar);
+                    } catch (final IOException ioe) {
+                        throw new UncheckedIOException(ioe);
+                    }
+                }
+            }
+
+            @Override
+            public int getStatusCode(final URLConnection response) {
+                return 412;
+            }
+        }.transferRetries(2);
+        try {
+            Files.createFile(path);
+            new Checkpoint("etag", 1L).store(sidecar);
+            try {
+                client.readObjectResumable("c", "o", null, path);
+                fail("restarted forever");
+            } catch (final StorageClientException sce) {
+                // expected
+            }
+            assertEquals(reads.get(), 3);
+        } finally {
+            Files.deleteIfExists(sidecar);
+            Files.deleteIfExists(path);
+            Files.delete(directory);
+        }
+    }
+}
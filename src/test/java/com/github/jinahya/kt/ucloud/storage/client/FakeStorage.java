@@ -0,0 +1,642 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URLDecoder;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.time.Instant;
+import static java.time.ZoneOffset.UTC;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-memory server which speaks just enough of the storage API for tests.
+ * Objects have no metadata but the content type.
+ *
+ * @author Jin Kwon &lt;onacit_at_gmail.com&gt;
+ */
+public final class FakeStorage implements AutoCloseable {
+
+    /**
+     * A request the server received.
+     */
+    public static final class Request {
+
+        private Request(final HttpExchange exchange, final long length) {
+            super();
+            method = exchange.getRequestMethod();
+            path = exchange.getRequestURI().getPath();
+            query = exchange.getRequestURI().getRawQuery();
+            headers = new Headers();
+            headers.putAll(exchange.getRequestHeaders());
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + path;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public String getHeader(final String name) {
+            return headers.getFirst(name);
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        private final String method;
+
+        private final String path;
+
+        private final String query;
+
+        private final Headers headers;
+
+        private final long length;
+    }
+
+    private static final class Entry {
+
+        private Entry(final byte[] bytes, final String contentType) {
+            this(bytes, contentType, null);
+        }
+
+        private Entry(final byte[] bytes, final String contentType,
+                      final String manifest) {
+            super();
+            this.bytes = bytes;
+            this.contentType = contentType;
+            this.manifest = manifest;
+            modified = System.currentTimeMillis() / 1000L * 1000L;
+        }
+
+        private final byte[] bytes;
+
+        private final String contentType;
+
+        private final String manifest;
+
+        private final long modified;
+    }
+
+    private static final String ACCOUNT = "/v1/AUTH_test";
+
+    private static String decode(final String value) {
+        try {
+            return URLDecoder.decode(value.replace("+", "%2B"), "UTF-8");
+        } catch (final UnsupportedEncodingException uee) {
+            throw new RuntimeException(uee);
+        }
+    }
+
+    private static Map<String, String> query(final String query) {
+        final Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (final String pair : query.split("&")) {
+                final int i = pair.indexOf('=');
+                if (i == -1) {
+                    params.put(decode(pair), "");
+                } else {
+                    params.put(decode(pair.substring(0, i)),
+                               decode(pair.substring(i + 1)));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static String escape(final String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+
+    private static byte[] corrupted(final byte[] bytes) {
+        final byte[] corrupted = bytes.clone();
+        for (int i = 0; i < corrupted.length; i++) {
+            corrupted[i] = (byte) ~corrupted[i];
+        }
+        return corrupted;
+    }
+
+    private static String etag(final byte[] bytes) {
+        return StorageClient.hex(StorageClient.md5().digest(bytes));
+    }
+
+    private static byte[] read(final InputStream stream) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        for (int r; (r = stream.read(buffer)) != -1;) {
+            output.write(buffer, 0, r);
+        }
+        return output.toByteArray();
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Starts a new server on the loopback address.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    public FakeStorage() throws IOException {
+        super();
+        server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", e -> {
+            try {
+                handle(e);
+            } finally {
+                e.close();
+            }
+        });
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    private void respond(final HttpExchange exchange, final int statusCode,
+                         final byte[] body) throws IOException {
+        if (body == null || body.length == 0
+            || "HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(statusCode, -1L);
+            return;
+        }
+        exchange.sendResponseHeaders(statusCode, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final byte[] body = read(exchange.getRequestBody());
+        final Request request = new Request(exchange, body.length);
+        requests.add(request);
+        connections.add(exchange.getRemoteAddress());
+        final Deque<Integer> queued = faults.get(request.toString());
+        if (queued != null) {
+            final Integer statusCode;
+            synchronized (queued) {
+                statusCode = queued.poll();
+            }
+            if (statusCode != null) {
+                respond(exchange, statusCode, null);
+                return;
+            }
+        }
+        if ("/auth".equals(request.getPath())) {
+            final String token = "token" + tokens.incrementAndGet();
+            this.token = token;
+            final Headers headers = exchange.getResponseHeaders();
+            headers.set(StorageClient.HEADER_X_STORAGE_URL, getStorageUrl());
+            headers.set(StorageClient.HEADER_X_AUTH_TOKEN, token);
+            if (expires != null) {
+                headers.set(StorageClient.HEADER_X_AUTH_TOKEN_EXPIRES,
+                            expires);
+            }
+            respond(exchange, 200, null);
+            return;
+        }
+        if (!request.getPath().startsWith(ACCOUNT + "/")) {
+            respond(exchange, 404, null);
+            return;
+        }
+        if (token == null || !token.equals(
+                request.getHeader(StorageClient.HEADER_X_AUTH_TOKEN))) {
+            respond(exchange, 401, null);
+            return;
+        }
+        final String path = request.getPath().substring(ACCOUNT.length() + 1);
+        final int slash = path.indexOf('/');
+        if (slash == -1) {
+            container(exchange, request, path);
+        } else {
+            object(exchange, request, body, path.substring(0, slash),
+                   path.substring(slash + 1));
+        }
+    }
+
+    private void container(final HttpExchange exchange, final Request request,
+                           final String containerName) throws IOException {
+        final NavigableMap<String, Entry> objects
+                = containers.get(containerName);
+        switch (request.getMethod()) {
+            case "PUT":
+                respond(exchange, containers.putIfAbsent(
+                        containerName, new ConcurrentSkipListMap<>()) == null
+                                  ? 201 : 202, null);
+                break;
+            case "DELETE":
+                if (objects == null) {
+                    respond(exchange, 404, null);
+                } else if (!objects.isEmpty()) {
+                    respond(exchange, 409, null);
+                } else {
+                    containers.remove(containerName);
+                    respond(exchange, 204, null);
+                }
+                break;
+            case "HEAD":
+            case "GET":
+                if (objects == null) {
+                    respond(exchange, 404, null);
+                    break;
+                }
+                exchange.getResponseHeaders().set(
+                        "X-Container-Object-Count",
+                        Integer.toString(objects.size()));
+                respond(exchange, 200, listing(objects, request));
+                break;
+            default:
+                respond(exchange, 405, null);
+                break;
+        }
+    }
+
+    private byte[] listing(final NavigableMap<String, Entry> objects,
+                           final Request request) {
+        final Map<String, String> params = query(request.getQuery());
+        final String prefix = params.getOrDefault("prefix", "");
+        final String marker = params.get("marker");
+        final String endMarker = params.get("end_marker");
+        final String delimiter = params.get("delimiter");
+        final int limit = Integer.parseInt(
+                params.getOrDefault("limit", "10000"));
+        final boolean xml = "xml".equals(params.get("format"));
+        final StringBuilder builder = new StringBuilder();
+        if (xml) {
+            builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                    .append("<container>");
+        }
+        int count = 0;
+        String subdir = null;
+        for (final Map.Entry<String, Entry> e
+             : (marker == null ? objects : objects.tailMap(marker, false))
+                .entrySet()) {
+            if (count == limit || (endMarker != null
+                                   && e.getKey().compareTo(endMarker) >= 0)) {
+                break;
+            }
+            if (!e.getKey().startsWith(prefix)) {
+                continue;
+            }
+            final int i = delimiter == null || delimiter.isEmpty()
+                          ? -1 : e.getKey().indexOf(delimiter, prefix.length());
+            if (i != -1) {
+                final String name = e.getKey().substring(
+                        0, i + delimiter.length());
+                if (!name.equals(subdir)) {
+                    subdir = name;
+                    builder.append(xml ? "<subdir><name>" + escape(name)
+                                         + "</name></subdir>"
+                                   : name + "\n");
+                    count++;
+                }
+                continue;
+            }
+            if (xml) {
+                builder.append("<object><name>").append(escape(e.getKey()))
+                        .append("</name><bytes>")
+                        .append(e.getValue().bytes.length)
+                        .append("</bytes><hash>")
+                        .append(etag(e.getValue().bytes))
+                        .append("</hash><content_type>")
+                        .append(escape(e.getValue().contentType))
+                        .append("</content_type></object>");
+            } else {
+                builder.append(e.getKey()).append('\n');
+            }
+            count++;
+        }
+        if (xml) {
+            builder.append("</container>");
+        }
+        return builder.toString().getBytes(UTF_8);
+    }
+
+    private void object(final HttpExchange exchange, final Request request,
+                        final byte[] body, final String containerName,
+                        final String objectName) throws IOException {
+        final NavigableMap<String, Entry> objects
+                = containers.get(containerName);
+        if (objects == null) {
+            respond(exchange, 404, null);
+            return;
+        }
+        final Entry entry = objects.get(objectName);
+        switch (request.getMethod()) {
+            case "PUT":
+                final String source
+                        = request.getHeader(StorageClient.HEADER_X_COPY_FROM);
+                final String contentType = request.getHeader("Content-Type");
+                final String manifest = request.getHeader(
+                        StorageClient.HEADER_X_OBJECT_MANIFEST);
+                if (source == null) {
+                    objects.put(objectName, new Entry(
+                                body, contentType == null
+                                      ? "application/octet-stream"
+                                      : contentType, manifest));
+                    exchange.getResponseHeaders().set(
+                            StorageClient.HEADER_ETAG,
+                            corrupting ? etag(new byte[0]) : etag(body));
+                    respond(exchange, 201, null);
+                    break;
+                }
+                if (body.length > 0) {
+                    respond(exchange, 400, null);
+                    break;
+                }
+                final String decoded = decode(source).substring(1);
+                final int slash = decoded.indexOf('/');
+                final Map<String, Entry> sources
+                        = containers.get(decoded.substring(0, slash));
+                final Entry copied = sources == null
+                                     ? null
+                                     : sources.get(
+                                             decoded.substring(slash + 1));
+                if (copied == null) {
+                    respond(exchange, 404, null);
+                    break;
+                }
+                objects.put(objectName, new Entry(
+                            copied.bytes, contentType == null
+                                          ? copied.contentType
+                                          : contentType));
+                respond(exchange, 201, null);
+                break;
+            case "DELETE":
+                respond(exchange, objects.remove(objectName) == null
+                                  ? 404 : 204, null);
+                break;
+            case "HEAD":
+            case "GET":
+                if (entry == null) {
+                    respond(exchange, 404, null);
+                    break;
+                }
+                final byte[] content = content(entry);
+                final String etag = etag(content);
+                exchange.getResponseHeaders().set(
+                        "Content-Type", entry.contentType);
+                exchange.getResponseHeaders().set(
+                        StorageClient.HEADER_ETAG, etag);
+                exchange.getResponseHeaders().set(
+                        "Last-Modified", RFC_1123_DATE_TIME.format(
+                                Instant.ofEpochMilli(entry.modified)
+                                .atOffset(UTC)));
+                final String since = request.getHeader("If-Modified-Since");
+                if (etag.equals(request.getHeader("If-None-Match"))
+                    || (since != null && entry.modified <= Instant.from(
+                        RFC_1123_DATE_TIME.parse(since)).toEpochMilli())) {
+                    respond(exchange, 304, null);
+                    break;
+                }
+                final String match = request.getHeader("If-Match");
+                if (match != null && !match.equals(etag)) {
+                    respond(exchange, 412, null);
+                    break;
+                }
+                if ("HEAD".equals(request.getMethod())) {
+                    exchange.getResponseHeaders().set(
+                            "Content-Length",
+                            Integer.toString(content.length));
+                }
+                final byte[] served = corrupting ? corrupted(content) : content;
+                final String range = request.getHeader("Range");
+                if (range != null && range.startsWith("bytes=")) {
+                    final String[] bounds = range.substring(6).split("-", 2);
+                    final int first = Integer.parseInt(bounds[0]);
+                    final int last = bounds[1].isEmpty()
+                                     ? content.length - 1
+                                     : Math.min(Integer.parseInt(bounds[1]),
+                                                content.length - 1);
+                    exchange.getResponseHeaders().set(
+                            "Content-Range", "bytes " + first + "-" + last
+                                             + "/" + content.length);
+                    respond(exchange, 206,
+                            Arrays.copyOfRange(served, first, last + 1));
+                    break;
+                }
+                respond(exchange, 200, served);
+                break;
+            default:
+                respond(exchange, 405, null);
+                break;
+        }
+    }
+
+    /**
+     * Returns the content of given entry; the concatenation of its segments
+     * for a manifest.
+     */
+    private byte[] content(final Entry entry) {
+        if (entry.manifest == null) {
+            return entry.bytes;
+        }
+        final String manifest = decode(entry.manifest);
+        final int slash = manifest.indexOf('/');
+        final NavigableMap<String, Entry> segments
+                = containers.get(manifest.substring(0, slash));
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        if (segments != null) {
+            final String prefix = manifest.substring(slash + 1);
+            for (final Map.Entry<String, Entry> e
+                 : segments.tailMap(prefix).entrySet()) {
+                if (!e.getKey().startsWith(prefix)) {
+                    break;
+                }
+                output.write(e.getValue().bytes, 0,
+                             e.getValue().bytes.length);
+            }
+        }
+        return output.toByteArray();
+    }
+
+    // -------------------------------------------------------------------------
+    /**
+     * Makes the next requests of given method and path, relative to the
+     * account, fail with specified status codes, in order.
+     *
+     * @param method the request method
+     * @param path the path relative to the account; e.g. {@code /c/o}
+     * @param statusCodes the status codes to respond
+     */
+    public void fault(final String method, final String path,
+                      final int... statusCodes) {
+        final Deque<Integer> queued = faults.computeIfAbsent(
+                method + " " + ACCOUNT + path, k -> new ArrayDeque<>());
+        synchronized (queued) {
+            for (final int statusCode : statusCodes) {
+                queued.add(statusCode);
+            }
+        }
+    }
+
+    /**
+     * Makes the current token unauthorized so that the next storage request is
+     * responded with {@code 401}.
+     */
+    public void revokeToken() {
+        token = null;
+    }
+
+    public void putContainer(final String containerName) {
+        containers.putIfAbsent(containerName, new ConcurrentSkipListMap<>());
+    }
+
+    public void putObject(final String containerName, final String objectName,
+                          final byte[] bytes, final String contentType) {
+        containers.computeIfAbsent(
+                containerName, k -> new ConcurrentSkipListMap<>())
+                .put(objectName, new Entry(bytes, contentType));
+    }
+
+    public byte[] getObject(final String containerName,
+                            final String objectName) {
+        final Map<String, Entry> objects = containers.get(containerName);
+        final Entry entry = objects == null ? null : objects.get(objectName);
+        return entry == null ? null : entry.bytes;
+    }
+
+    public String getContentType(final String containerName,
+                                 final String objectName) {
+        final Map<String, Entry> objects = containers.get(containerName);
+        final Entry entry = objects == null ? null : objects.get(objectName);
+        return entry == null ? null : entry.contentType;
+    }
+
+    public Set<String> getContainerNames() {
+        return containers.keySet();
+    }
+
+    public String getAuthUrl() {
+        return "http://" + address() + "/auth";
+    }
+
+    public String getStorageUrl() {
+        return "http://" + address() + ACCOUNT;
+    }
+
+    private String address() {
+        return server.getAddress().getHostString() + ":"
+               + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the requests received so far.
+     *
+     * @return a list of requests
+     */
+    public List<Request> getRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * Returns the number of distinct client connections accepted so far.
+     *
+     * @return the number of connections
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * Sets the value of {@value StorageClient#HEADER_X_AUTH_TOKEN_EXPIRES} to
+     * respond with for authentication; {@code null} for none.
+     *
+     * @param expires the value
+     */
+    public void setExpires(final String expires) {
+        this.expires = expires;
+    }
+
+    /**
+     * Sets whether to respond uploads with wrong {@code ETag}s and downloads
+     * with corrupted bodies.
+     *
+     * @param corrupting {@code true} to respond with wrong {@code ETag}s and
+     * bodies
+     */
+    public void setCorrupting(final boolean corrupting) {
+        this.corrupting = corrupting;
+    }
+
+    // -------------------------------------------------------------------------
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final HttpServer server;
+
+    private final Map<String, NavigableMap<String, Entry>> containers
+            = new ConcurrentSkipListMap<>();
+
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    private final Set<SocketAddress> connections
+            = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Deque<Integer>> faults
+            = new ConcurrentHashMap<>();
+
+    private final AtomicInteger tokens = new AtomicInteger();
+
+    private volatile String token;
+
+    private volatile String expires = "86400";
+
+    private volatile boolean corrupting;
+}
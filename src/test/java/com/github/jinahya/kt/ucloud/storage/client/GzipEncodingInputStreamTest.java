@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.GZIPInputStream;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class GzipEncodingInputStreamTest {
+
+    private static byte[] bytes(final InputStream input) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1021];
+        for (int r; (r = input.read(buffer)) != -1;) {
+            output.write(buffer, 0, r);
+        }
+        return output.toByteArray();
+    }
+
+    @Test
+    public void roundTrips() throws IOException {
+        for (final int length : new int[]{0, 1, 100, 65536, 300000}) {
+            final byte[] expected = new byte[length];
+            ThreadLocalRandom.current().nextBytes(expected);
+            for (int i = 0; i < length / 2; i++) {
+                expected[i] = (byte) (i % 7); // something compressible
+            }
+            final byte[] encoded;
+            try (InputStream input = new GzipEncodingInputStream(
+                    new ByteArrayInputStream(expected))) {
+                encoded = bytes(input);
+            }
+            try (InputStream input = new GZIPInputStream(
+                    new ByteArrayInputStream(encoded))) {
+                assertEquals(bytes(input), expected);
+            }
+        }
+    }
+
+    @Test
+    public void readsByteByByte() throws IOException {
+        final byte[] expected = "hello, world".getBytes("US-ASCII");
+        final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (InputStream input = new GzipEncodingInputStream(
+                new ByteArrayInputStream(expected))) {
+            for (int b; (b = input.read()) != -1;) {
+                encoded.write(b);
+            }
+        }
+        try (InputStream input = new GZIPInputStream(
+                new ByteArrayInputStream(encoded.toByteArray()))) {
+            assertEquals(bytes(input), expected);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.IOException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static java.nio.file.StandardOpenOption.APPEND;
+import java.util.Map;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class JournalTest {
+
+    @Test
+    public void appendAndRead() throws IOException {
+        final Path path = Files.createTempFile(null, null);
+        try {
+            Files.delete(path);
+            assertTrue(Journal.read(path).isEmpty());
+            try (Journal journal = new Journal(path)) {
+                journal.append(new Journal.Record("a/00000000", 10L, "x"));
+                journal.append(new Journal.Record("a/00000001", 5L, "y"));
+            }
+            Files.write(path, "a/00000002\t5".getBytes(UTF_8), APPEND);
+            final Map<String, Journal.Record> records = Journal.read(path);
+            assertEquals(records.size(), 2);
+            assertEquals(records.get("a/00000000").size, 10L);
+            assertEquals(records.get("a/00000001").etag, "y");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
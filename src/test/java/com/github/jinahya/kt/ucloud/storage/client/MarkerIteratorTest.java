@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.IntStream;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class MarkerIteratorTest {
+
+    private static List<String> names(final int count) {
+        return IntStream.range(0, count).mapToObj(i -> String.format("%05d", i))
+                .collect(toList());
+    }
+
+    private static List<String> page(final List<String> names,
+                                     final String marker, final int limit) {
+        final List<String> page = new ArrayList<>();
+        for (final String name : names) {
+            if (marker != null && name.compareTo(marker) <= 0) {
+                continue;
+            }
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(name);
+        }
+        return page;
+    }
+
+    @Test
+    public void pages() {
+        for (final int count : new int[]{0, 1, 9, 10, 11, 100, 105}) {
+            final List<String> names = names(count);
+            final List<String> markers = new ArrayList<>();
+            final List<String> actual = new ArrayList<>();
+            MarkerIterator.names(m -> {
+                markers.add(m);
+                return page(names, m, 10);
+            }, 10, null).forEachRemaining(actual::add);
+            assertEquals(actual, names);
+            assertEquals(markers.size(), count / 10 + 1);
+        }
+    }
+
+    @Test
+    public void startsAfterMarker() {
+        final List<String> names = names(25);
+        final List<String> actual = new ArrayList<>();
+        MarkerIterator.names(m -> page(names, m, 10), 10, "00019")
+                .forEachRemaining(actual::add);
+        assertEquals(actual, names.subList(20, 25));
+    }
+}
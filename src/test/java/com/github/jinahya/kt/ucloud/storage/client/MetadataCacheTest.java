@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class MetadataCacheTest {
+
+    @Test
+    public void expires() throws InterruptedException {
+        final MetadataCache cache = new MetadataCache();
+        cache.put("a", "A", 50L, cache.generation());
+        assertEquals(cache.get("a").value, "A");
+        Thread.sleep(100L);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void cachesAbsence() {
+        final MetadataCache cache = new MetadataCache();
+        cache.put("a", null, 60000L, cache.generation());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("a").value);
+    }
+
+    @Test
+    public void skipsValuesPeekedBeforeInvalidation() {
+        final MetadataCache cache = new MetadataCache();
+        final long generation = cache.generation();
+        cache.invalidate("b");
+        cache.put("a", "A", 60000L, generation);
+        assertNull(cache.get("a"));
+        cache.put("a", "A", 60000L, cache.generation());
+        cache.invalidate("", "a");
+        assertNull(cache.get("a"));
+    }
+}
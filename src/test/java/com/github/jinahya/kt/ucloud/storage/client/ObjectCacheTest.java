@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class ObjectCacheTest {
+
+    private static ObjectCache.Entry entry(final int length) {
+        return new ObjectCache.Entry("etag", null, new byte[length]);
+    }
+
+    @Test
+    public void evictsLeastRecentlyAccessed() {
+        final ObjectCache cache = new ObjectCache(30L, true);
+        cache.put("a", entry(10));
+        cache.put("b", entry(10));
+        cache.put("c", entry(10));
+        assertNotNull(cache.get("a"));
+        cache.put("d", entry(10));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(cache.size(), 30L);
+    }
+
+    @Test
+    public void evictsEldestInserted() {
+        final ObjectCache cache = new ObjectCache(30L, false);
+        cache.put("a", entry(10));
+        cache.put("b", entry(10));
+        cache.put("c", entry(10));
+        assertNotNull(cache.get("a"));
+        cache.put("d", entry(15));
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(cache.size(), 25L);
+    }
+
+    @Test
+    public void skipsOversized() {
+        final ObjectCache cache = new ObjectCache(30L, true);
+        cache.put("a", entry(10));
+        cache.put("a", entry(31));
+        assertNull(cache.get("a"));
+        assertEquals(cache.size(), 0L);
+    }
+}
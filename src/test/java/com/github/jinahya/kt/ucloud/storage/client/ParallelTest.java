@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.concurrent.ExecutorService;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class ParallelTest {
+
+    @Test
+    public void run() {
+        final AtomicIntegerArray runs = new AtomicIntegerArray(100);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        Parallel.run(executor, 3, runs.length(), i -> {
+            max.accumulateAndGet(running.incrementAndGet(), Math::max);
+            runs.incrementAndGet(i);
+            running.decrementAndGet();
+        });
+        for (int i = 0; i < runs.length(); i++) {
+            assertEquals(runs.get(i), 1);
+        }
+        assertTrue(max.get() <= 3);
+    }
+
+    @Test
+    public void runFails() {
+        try {
+            Parallel.run(executor, 3, 100, i -> {
+                if (i == 10) {
+                    throw new StorageClientException("failed");
+                }
+            });
+            fail("should've failed");
+        } catch (final StorageClientException sce) {
+        }
+    }
+
+    @Test
+    public void each() {
+        final AtomicIntegerArray runs = new AtomicIntegerArray(100);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger max = new AtomicInteger();
+        Parallel.each(executor, 3,
+                      IntStream.range(0, runs.length()).iterator(), i -> {
+            max.accumulateAndGet(running.incrementAndGet(), Math::max);
+            runs.incrementAndGet(i);
+            running.decrementAndGet();
+        });
+        for (int i = 0; i < runs.length(); i++) {
+            assertEquals(runs.get(i), 1);
+        }
+        assertTrue(max.get() <= 3);
+    }
+
+    @Test
+    public void retry() {
+        final AtomicInteger tries = new AtomicInteger();
+        assertEquals(Parallel.retry(2, () -> {
+            if (tries.incrementAndGet() < 3) {
+                throw new StorageClientException("failed");
+            }
+            return tries.get();
+        }).intValue(), 3);
+        try {
+            Parallel.retry(1, () -> {
+                throw new StorageClientException("failed");
+            });
+            fail("should've failed");
+        } catch (final StorageClientException sce) {
+        }
+    }
+
+    @Test
+    public void retryBacksOff() {
+        final long[] tried = new long[3];
+        final AtomicInteger tries = new AtomicInteger();
+        Parallel.retry(2, 100L, () -> {
+            final int i = tries.getAndIncrement();
+            tried[i] = System.nanoTime();
+            if (i < 2) {
+                throw new StorageClientException("failed");
+            }
+            return i;
+        });
+        assertTrue(tried[1] - tried[0] >= MILLISECONDS.toNanos(50L));
+        assertTrue(tried[2] - tried[1] >= MILLISECONDS.toNanos(100L));
+    }
+
+    @Test(timeOut = 10000L)
+    public void runOnWorkerOfExecutor() {
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            final AtomicInteger ran = new AtomicInteger();
+            pool.invoke(ForkJoinTask.adapt(() -> Parallel.run(
+                    pool, 2, 4, i -> ran.incrementAndGet())));
+            assertEquals(ran.get(), 4);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final ExecutorService executor = newFixedThreadPool(8);
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static java.util.stream.Collectors.toList;
+import java.util.stream.IntStream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class PrefetchingIteratorTest {
+
+    @Test
+    public void iterate() {
+        final List<Integer> expected
+                = IntStream.range(0, 1000).boxed().collect(toList());
+        final List<Integer> actual = new ArrayList<>();
+        new PrefetchingIterator<>(expected.iterator(), 4, executor)
+                .forEachRemaining(actual::add);
+        assertEquals(actual, expected);
+    }
+
+    @Test
+    public void failure() {
+        final Iterator<Integer> failing = new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                throw new StorageClientException("failed");
+            }
+        };
+        final PrefetchingIterator<Integer> iterator
+                = new PrefetchingIterator<>(failing, 1, executor);
+        try {
+            iterator.hasNext();
+            fail("should've failed");
+        } catch (final StorageClientException sce) {
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(timeOut = 10000L)
+    public void error() {
+        final Iterator<Integer> failing = new Iterator<Integer>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                throw new StackOverflowError();
+            }
+        };
+        final PrefetchingIterator<Integer> iterator
+                = new PrefetchingIterator<>(failing, 1, executor);
+        try {
+            iterator.hasNext();
+            fail("should've failed");
+        } catch (final StackOverflowError soe) {
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void close() {
+        final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(
+                IntStream.iterate(0, i -> i + 1).iterator(), 1, executor);
+        iterator.next();
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private final ExecutorService executor = newSingleThreadExecutor();
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void spaces() {
+        final RateLimiter limiter = new RateLimiter(100);
+        final long started = nanoTime();
+        for (int i = 0; i < 21; i++) {
+            limiter.acquire();
+        }
+        assertTrue(nanoTime() - started >= MILLISECONDS.toNanos(190L));
+    }
+
+    @Test
+    public void unlimited() {
+        final RateLimiter limiter = new RateLimiter(0);
+        final long started = nanoTime();
+        for (int i = 0; i < 10000; i++) {
+            limiter.acquire();
+        }
+        assertTrue(nanoTime() - started < MILLISECONDS.toNanos(1000L));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import static java.util.Collections.singletonList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class ReplayTest {
+
+    @Test
+    public void replaysOnce() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final List<String> used = new ArrayList<>();
+        final int statusCode = Replay.replay(
+                () -> {
+                    attempts.incrementAndGet();
+                    Replay.check(401);
+                    return 401;
+                },
+                () -> "token", used::add);
+        assertEquals(statusCode, 401);
+        assertEquals(attempts.get(), 2);
+        assertEquals(used, singletonList("token"));
+    }
+
+    @Test
+    public void doesNotReplayAuthorized() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final int statusCode = Replay.replay(
+                () -> {
+                    attempts.incrementAndGet();
+                    Replay.check(200);
+                    return 200;
+                },
+                () -> "token", t -> {
+                    throw new AssertionError("authenticated");
+                });
+        assertEquals(statusCode, 200);
+        assertEquals(attempts.get(), 1);
+    }
+
+    /**
+     * Replays a request running on a single-threaded executor, which would
+     * deadlock if the authentication were made on the executor.
+     */
+    @Test
+    public void replaysOnItsOwnThread() throws InterruptedException,
+                                               ExecutionException,
+                                               TimeoutException {
+        final AtomicInteger authentications = new AtomicInteger();
+        final StorageClientNet client = new StorageClientNet(
+                "https://localhost", "user", "key") {
+            @Override
+            public <R> R authenticateUser(
+                    final boolean newToken,
+                    final Function<URLConnection, R> function) {
+                setSession("https://localhost/storage",
+                           "token" + authentications.incrementAndGet(),
+                           "3600");
+                return function.apply(null);
+            }
+
+            @Override
+            public int getStatusCode(final URLConnection response) {
+                return 200;
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            client.executor(executor);
+            final AtomicInteger attempts = new AtomicInteger();
+            final String token = executor.submit(() -> client.replaying(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    Replay.check(401);
+                }
+                return client.getAuthToken();
+            })).get(5L, SECONDS);
+            assertEquals(token, "token1");
+            assertEquals(authentications.get(), 1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void checksNothingOutOfScope() {
+        Replay.check(401);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class SessionTest {
+
+    @Test
+    public void valid() {
+        final Session session = new Session("s", null, "t", 1000L);
+        assertTrue(session.isValid(1000L));
+        assertFalse(session.isValid(1001L));
+        assertFalse(new Session("s", null, "t", -1L).isValid(0L));
+        assertFalse(new Session(null, null, "t", 1000L).isValid(0L));
+        assertFalse(Session.EMPTY.isValid(0L));
+        assertNull(Session.EMPTY.getAuthTokenExpires());
+    }
+
+    @Test
+    public void tokenNotPrinted() {
+        assertFalse(new Session("s", null, "secret", 0L).toString()
+                .contains("secret"));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.util.ArrayList;
+import static java.util.Arrays.asList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class ShardedListingTest {
+
+    private static final List<String> NAMES = asList(
+            "a", "b/", "b/1", "b/2/x", "b/2/y", "b/3", "c", "d/e/f", "d0",
+            "e");
+
+    /**
+     * Returns a lister lists given names as the server does with a prefix, a
+     * delimiter of {@code /}, a marker, an end marker and a limit.
+     */
+    private static ShardedListing.Lister lister(final List<String> names,
+                                                final int limit,
+                                                final AtomicInteger bounded) {
+        return (p, m, e) -> {
+            if (e != null) {
+                bounded.incrementAndGet();
+            }
+            final List<String> listed = new ArrayList<>();
+            String subdir = null;
+            for (final String name : names) {
+                if (listed.size() == limit) {
+                    break;
+                }
+                if (!name.startsWith(p) || (m != null && name.compareTo(m) <= 0)
+                    || (e != null && name.compareTo(e) >= 0)) {
+                    continue;
+                }
+                final int i = name.indexOf('/', p.length());
+                final String rolled = i == -1 ? name : name.substring(0, i + 1);
+                if (rolled.equals(name)) {
+                    listed.add(name); // an object
+                } else if (!rolled.equals(subdir)) {
+                    listed.add(subdir = rolled);
+                }
+            }
+            return listed;
+        };
+    }
+
+    @Test
+    public void ordered() {
+        final List<String> actual = pool.invoke(new ShardedListing(
+                lister(NAMES, 2, new AtomicInteger()), 2, "/", "", null));
+        assertEquals(actual, NAMES);
+    }
+
+    @Test
+    public void unordered() {
+        final List<String> actual
+                = Collections.synchronizedList(new ArrayList<>());
+        assertEquals(pool.invoke(new ShardedListing(
+                lister(NAMES, 2, new AtomicInteger()), 2, "/", "",
+                actual::add)).size(), 0);
+        assertEquals(new TreeSet<>(actual), new TreeSet<>(NAMES));
+        assertEquals(actual.size(), NAMES.size());
+    }
+
+    @Test
+    public void flat() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            names.add(String.format("%03x", i * 4));
+        }
+        final AtomicInteger bounded = new AtomicInteger();
+        final List<String> actual = pool.invoke(new ShardedListing(
+                lister(names, 10, bounded), 10, "/", "", null));
+        assertEquals(actual, names);
+        assertTrue(bounded.get() > 0);
+    }
+
+    @Test
+    public void middle() {
+        assertEquals(ShardedListing.middle("a", "c"), "b");
+        final String ab = ShardedListing.middle("a", "b");
+        assertTrue(ab.compareTo("a") > 0 && ab.compareTo("b") < 0, ab);
+        final String a = ShardedListing.middle("a", null);
+        assertTrue(a.compareTo("a") > 0, a);
+        final String tilde = ShardedListing.middle("~~", null);
+        assertTrue(tilde.compareTo("~~") > 0, tilde);
+        // U+FFFF sorts before U+1F600 in UTF-8 though not in UTF-16
+        final String high = ShardedListing.middle("\uffff", "\ud83d\ude00");
+        assertTrue(high.codePointAt(0) > 0xFFFF
+                   && high.codePointAt(0) < 0x1F600, high);
+        assertNull(ShardedListing.middle("b", "a"));
+        assertNull(ShardedListing.middle("a", "a"));
+        assertNull(ShardedListing.middle("a", "a\u0001"));
+    }
+
+    @AfterClass
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import com.github.jinahya.kt.ucloud.storage.client.net.NetTransport;
+import com.github.jinahya.kt.ucloud.storage.client.net.StorageClientNet;
+import com.github.jinahya.kt.ucloud.storage.client.ws.rs.StorageClientWsRs;
+import java.io.IOException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import java.util.HashSet;
+import java.util.concurrent.Executor;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class StorageClientRegistryTest {
+
+    @Test
+    public void sharesTransportAndExecutor() {
+        final NetTransport transport = new NetTransport();
+        final Executor executor = Runnable::run;
+        try (StorageClientRegistry<StorageClientNet> registry
+                = new StorageClientRegistry<>(
+                        (u, k) -> new StorageClientNet(
+                                "https://localhost", u, k, transport),
+                        executor)) {
+            final StorageClientNet a = registry.get("a", "ak");
+            final StorageClientNet b = registry.get("b", "bk");
+            assertNotSame(a, b);
+            assertSame(registry.get("a", "ak"), a);
+            assertSame(a.getTransport(), transport);
+            assertSame(b.getTransport(), transport);
+            assertSame(a.getExecutor(), executor);
+            assertSame(b.getExecutor(), executor);
+            assertEquals(registry.getAuthUsers(),
+                         new HashSet<>(asList("a", "b")));
+            assertNotSame(registry.get("a", "ak2"), a);
+            assertTrue(registry.remove("b"));
+            assertFalse(registry.remove("b"));
+        }
+    }
+
+    @Test
+    public void keepsSharedClientOfReplacedClient() throws IOException {
+        final byte[] bytes = "shared".getBytes(UTF_8);
+        final Client shared = ClientBuilder.newClient();
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientRegistry<StorageClientWsRs> registry
+                    = new StorageClientRegistry<>(
+                            (u, k) -> new StorageClientWsRs(
+                                    storage.getAuthUrl(), u, k, shared),
+                            Runnable::run, shared::close);
+            final StorageClientWsRs replaced = registry.get("test", "old");
+            replaced.authenticateUser(false);
+            final StorageClientWsRs client = registry.get("test", "test");
+            assertNotSame(client, replaced);
+            client.authenticateUser(false);
+            assertTrue(registry.remove("test"));
+            assertEquals((int) replaced.readObject(
+                    "c", "o", null, null, replaced::getStatusCode), 200);
+            assertEquals((int) client.readObject(
+                    "c", "o", null, null, client::getStatusCode), 200);
+            registry.close();
+            try {
+                shared.target(storage.getAuthUrl());
+                fail("owned transport not closed");
+            } catch (final IllegalStateException ise) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void sharesMetrics() throws IOException {
+        try (FakeStorage storage = new FakeStorage();
+             StorageClientRegistry<StorageClientNet> registry
+                     = new StorageClientRegistry<>(
+                             (u, k) -> new StorageClientNet(
+                                     storage.getAuthUrl(), u, k),
+                             Runnable::run)) {
+            storage.putObject("c", "o", new byte[1], "text/plain");
+            final StorageClientNet a = registry.get("a", "ak");
+            final StorageClientNet b = registry.get("b", "bk");
+            assertSame(a.getMetrics(), registry.getMetrics());
+            a.authenticateUser(false);
+            a.readObject("c", "o", null, null, a::getStatusCode);
+            b.authenticateUser(false);
+            b.readObject("c", "none", null, null, b::getStatusCode);
+            assertEquals(registry.getMetrics().getResponseCount(), 2L);
+            assertEquals(registry.getMetrics().getResponseCount(200), 1L);
+            assertEquals(registry.getMetrics().getResponseCount(404), 1L);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void closed() {
+        final StorageClientRegistry<StorageClientNet> registry
+                = new StorageClientRegistry<>(
+                        (u, k) -> new StorageClientNet("https://localhost", u,
+                                                       k),
+                        Runnable::run);
+        registry.get("a", "ak");
+        registry.close();
+        assertTrue(registry.getAuthUsers().isEmpty());
+        registry.get("a", "ak");
+    }
+}
@@ -15,7 +15,22 @@
  */
 package com.github.jinahya.kt.ucloud.storage.client;
 
+import com.github.jinahya.kt.ucloud.storage.client.bind.ObjectInfo;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import static java.lang.System.currentTimeMillis;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import static java.util.Arrays.asList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.fail;
@@ -44,6 +59,78 @@ public abstract class StorageClientTest<ClientType extends StorageClient> {
         }
     }
 
+    @Test
+    public static void hex() {
+        assertEquals(StorageClient.hex(new byte[0]), "");
+        assertEquals(StorageClient.hex(
+                new byte[]{0x00, 0x0F, (byte) 0xA5, (byte) 0xFF}),
+                     "000fa5ff");
+    }
+
+    @Test
+    public static void objectInfos() {
+        final String xml
+                = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                  + "<container name=\"c\">"
+                  + "<object><name>a</name>"
+                  + "<hash>4281c348eaf83e70ddce0e07221c3d28</hash>"
+                  + "<bytes>14</bytes>"
+                  + "<content_type>text/plain</content_type>"
+                  + "<last_modified>2016-08-10T05:26:32.612278</last_modified>"
+                  + "</object>"
+                  + "<subdir name=\"b/\"><name>b/</name></subdir>"
+                  + "</container>";
+        final List<ObjectInfo> actual = new ArrayList<>();
+        StorageClient.objectInfos(
+                new ByteArrayInputStream(xml.getBytes(UTF_8)), actual::add);
+        assertEquals(actual, asList(
+                new ObjectInfo().name("a").bytes(14L)
+                .hash("4281c348eaf83e70ddce0e07221c3d28")
+                .contentType("text/plain")
+                .lastModified("2016-08-10T05:26:32.612278"),
+                new ObjectInfo().name("b/")));
+    }
+
+    @Test
+    public static void transfer() throws IOException {
+        final byte[] bytes = new byte[100000];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        final Path path = Files.createTempFile(null, null);
+        try {
+            Files.write(path, bytes);
+            try (FileChannel channel = FileChannel.open(path)) {
+                final ByteArrayOutputStream output
+                        = new ByteArrayOutputStream();
+                StorageClient.transfer(channel, 100L, 50000L, output);
+                assertEquals(output.toByteArray(),
+                             Arrays.copyOfRange(bytes, 100, 50100));
+                output.reset();
+                try (InputStream input = StorageClient.newInputStream(
+                        channel, 50100L, 49900L)) {
+                    final byte[] buffer = new byte[1024];
+                    for (int r; (r = input.read(buffer)) != -1;) {
+                        output.write(buffer, 0, r);
+                    }
+                }
+                assertEquals(output.toByteArray(),
+                             Arrays.copyOfRange(bytes, 50100, 100000));
+                assertEquals(channel.position(), 0L);
+                assertEquals(StorageClient.md5(channel, 100L, 50000L),
+                             StorageClient.hex(StorageClient.md5().digest(
+                                     Arrays.copyOfRange(bytes, 100, 50100))));
+                final MessageDigest digest = StorageClient.md5();
+                StorageClient.transfer(
+                        channel, 100L, 50000L,
+                        StorageClient.digested(new ByteArrayOutputStream(),
+                                               digest));
+                assertEquals(StorageClient.hex(digest.digest()),
+                             StorageClient.md5(channel, 100L, 50000L));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
     public StorageClientTest(final Class<ClientType> clientClass) {
         super();
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import static java.nio.file.attribute.PosixFilePermissions.fromString;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class TokenFileTest {
+
+    @Test
+    public void storesProperties() throws IOException {
+        final Path directory = Files.createTempDirectory(null);
+        final Path path = directory.resolve("token");
+        try {
+            TokenFile.update(path, p -> {
+                assertNull(p.getProperty("k"));
+                p.setProperty("k", "v");
+                return true;
+            });
+            if (Files.getFileStore(path).supportsFileAttributeView(
+                    PosixFileAttributeView.class)) {
+                assertEquals(Files.getPosixFilePermissions(path),
+                             fromString("rw-------"));
+            }
+            TokenFile.update(path, p -> {
+                assertEquals(p.getProperty("k"), "v");
+                p.setProperty("k", "w");
+                return false;
+            });
+            TokenFile.update(path, p -> {
+                assertEquals(p.getProperty("k"), "v");
+                return false;
+            });
+        } finally {
+            Files.deleteIfExists(path);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void tightensPermissions() throws IOException {
+        final Path path = Files.createTempFile(null, null);
+        try {
+            if (!Files.getFileStore(path).supportsFileAttributeView(
+                    PosixFileAttributeView.class)) {
+                return;
+            }
+            Files.setPosixFilePermissions(path, fromString("rw-r--r--"));
+            TokenFile.update(path, p -> false);
+            assertEquals(Files.getPosixFilePermissions(path),
+                         fromString("rw-------"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void updatesInTurn() throws IOException, InterruptedException,
+                                       ExecutionException {
+        final Path path = Files.createTempFile(null, null);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> {
+                    TokenFile.update(path, p -> {
+                        final int count = Integer.parseInt(
+                                p.getProperty("count", "0"));
+                        p.setProperty("count", Integer.toString(count + 1));
+                        return true;
+                    });
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+            TokenFile.update(path, p -> {
+                assertEquals(p.getProperty("count"), "32");
+                return false;
+            });
+        } finally {
+            executor.shutdown();
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import static java.lang.System.currentTimeMillis;
+import java.util.concurrent.CompletableFuture;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class TokenRefreshTest {
+
+    @Test
+    public void refreshesAheadOfExpiry() throws InterruptedException {
+        final AtomicLong expires = new AtomicLong(-1L);
+        final AtomicInteger refreshes = new AtomicInteger();
+        final TokenRefresh refresh = new TokenRefresh(scheduler, () -> {
+            refreshes.incrementAndGet();
+            expires.set(currentTimeMillis() + 150L);
+            return CompletableFuture.completedFuture(200);
+        }, expires::get, 100L, 10L);
+        refresh.start();
+        Thread.sleep(500L);
+        refresh.cancel();
+        final int count = refreshes.get();
+        assertTrue(count >= 3, "refreshes: " + count);
+        Thread.sleep(200L);
+        assertEquals(refreshes.get(), count);
+    }
+
+    @Test
+    public void refreshesShortLivedAtHalfLife() throws InterruptedException {
+        final AtomicLong expires = new AtomicLong(-1L);
+        final AtomicInteger refreshes = new AtomicInteger();
+        final TokenRefresh refresh = new TokenRefresh(scheduler, () -> {
+            refreshes.incrementAndGet();
+            expires.set(currentTimeMillis() + 200L);
+            return CompletableFuture.completedFuture(200);
+        }, expires::get, 1000L, 10L);
+        refresh.start();
+        Thread.sleep(350L);
+        refresh.cancel();
+        final int count = refreshes.get();
+        assertTrue(count >= 2 && count <= 5, "refreshes: " + count);
+    }
+
+    @Test
+    public void retriesFailures() throws InterruptedException {
+        final AtomicInteger refreshes = new AtomicInteger();
+        final TokenRefresh refresh = new TokenRefresh(scheduler, () -> {
+            refreshes.incrementAndGet();
+            final CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new StorageClientException("failed"));
+            return failed;
+        }, () -> -1L, 0L, 20L);
+        refresh.start();
+        Thread.sleep(300L);
+        refresh.cancel();
+        assertTrue(refreshes.get() >= 3, "refreshes: " + refreshes.get());
+    }
+
+    @Test
+    public void stopsWithoutExpiry() throws InterruptedException {
+        final AtomicInteger refreshes = new AtomicInteger();
+        final TokenRefresh refresh = new TokenRefresh(scheduler, () -> {
+            refreshes.incrementAndGet();
+            return CompletableFuture.completedFuture(200);
+        }, () -> -1L, 0L, 20L);
+        refresh.start();
+        Thread.sleep(300L);
+        refresh.cancel();
+        assertEquals(refreshes.get(), 1);
+    }
+
+    @AfterClass
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private final ScheduledExecutorService scheduler
+            = newSingleThreadScheduledExecutor();
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit at gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit at gmail.com&gt;
+ */
+public class TreeUploadTest {
+
+    @Test
+    public void uploadsEveryFile() throws IOException {
+        final Path root = Files.createTempDirectory(null);
+        try {
+            long expected = 0L;
+            for (int i = 0; i < 3; i++) {
+                final Path directory
+                        = Files.createDirectories(root.resolve("d" + i)
+                                .resolve("e" + i));
+                for (int j = 0; j < 5; j++) {
+                    Files.write(directory.resolve("f" + j), new byte[i + j]);
+                    expected += i + j;
+                }
+            }
+            Files.write(root.resolve("g"), new byte[7]);
+            expected += 7L;
+            final Set<Path> uploaded = new ConcurrentSkipListSet<>();
+            final ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                final long bytes = pool.invoke(new TreeUpload(root, p -> {
+                    uploaded.add(p);
+                    return p.toFile().length();
+                }));
+                assertEquals(bytes, expected);
+                assertEquals(uploaded.size(), 16);
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    public void stopsOnFailure() throws IOException {
+        final Path root = Files.createTempDirectory(null);
+        try {
+            for (int i = 0; i < 10; i++) {
+                Files.write(root.resolve("f" + i), new byte[1]);
+            }
+            final AtomicInteger attempted = new AtomicInteger();
+            final ForkJoinPool pool = new ForkJoinPool(1);
+            try {
+                pool.invoke(new TreeUpload(root, p -> {
+                    attempted.incrementAndGet();
+                    throw new StorageClientException("failed; " + p);
+                }));
+                fail("a failure has been swallowed");
+            } catch (final StorageClientException sce) {
+                assertEquals(attempted.get(), 1);
+            } finally {
+                pool.shutdown();
+            }
+        } finally {
+            delete(root);
+        }
+    }
+
+    private static void delete(final Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                p.toFile().delete();
+            });
+        }
+    }
+}
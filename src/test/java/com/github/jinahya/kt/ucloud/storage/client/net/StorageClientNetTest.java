@@ -15,7 +15,50 @@
  */
 package com.github.jinahya.kt.ucloud.storage.client.net;
 
+import com.github.jinahya.kt.ucloud.storage.client.DeleteSummary;
+import com.github.jinahya.kt.ucloud.storage.client.FakeStorage;
+import com.github.jinahya.kt.ucloud.storage.client.StorageClientException;
+import static com.github.jinahya.kt.ucloud.storage.client.StorageClient.DRAIN_LIMIT;
 import com.github.jinahya.kt.ucloud.storage.client.StorageClientTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.zip.GZIPInputStream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import org.testng.annotations.Test;
 
 /**
  *
@@ -26,4 +69,502 @@ public class StorageClientNetTest extends StorageClientTest<StorageClientNet> {
     public StorageClientNetTest() {
         super(StorageClientNet.class);
     }
+
+    @Test
+    public void encodesParams() throws UnsupportedEncodingException {
+        final String marker = "a b&c#d+e=f/\ud55c\uae00";
+        final Map<String, List<Object>> params = new LinkedHashMap<>();
+        params.put("marker", singletonList(marker));
+        params.put("limit", singletonList(10));
+        final URI uri = URI.create(StorageClientNet.buildStorage(
+                "https://localhost/v1/AUTH_a", params).toString());
+        final String[] pairs = uri.getRawQuery().split("&");
+        assertEquals(pairs.length, 2);
+        assertEquals(URLDecoder.decode(pairs[0], "UTF-8"), "marker=" + marker);
+        assertEquals(pairs[1], "limit=10");
+        assertEquals(uri.getRawQuery().indexOf('+'), -1);
+        assertNull(uri.getRawFragment());
+    }
+
+    @Test
+    public void copyObject() throws IOException {
+        final String sourceObjectName = "a b/\ud55c#?";
+        final byte[] bytes = "copied".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("s c", sourceObjectName, bytes, "text/x-test");
+            storage.putContainer("d");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            assertEquals((int) client.copyObject(
+                    "s c", sourceObjectName, "d", "o", null,
+                    client::getStatusCode), 201);
+            assertEquals(storage.getObject("d", "o"), bytes);
+            assertEquals(storage.getContentType("d", "o"), "text/x-test");
+            final FakeStorage.Request request = storage.getRequests().get(
+                    storage.getRequests().size() - 1);
+            assertEquals(request.getHeader("X-Copy-From"),
+                         "/s%20c/a%20b/%ED%95%9C%23%3F");
+            assertNull(request.getHeader("Content-Type"));
+        }
+    }
+
+    @Test
+    public void copyObjects() throws IOException {
+        try (FakeStorage storage = new FakeStorage()) {
+            for (final String name : new String[]{"p/1", "p/2", "q/3"}) {
+                storage.putObject("s", name, name.getBytes(UTF_8),
+                                  "text/plain");
+            }
+            storage.putContainer("d");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            final List<String> progressed = new ArrayList<>();
+            assertEquals(client.copyObjects(
+                    "s", "p/", "d", n -> n.endsWith("2") ? null : "x/" + n,
+                    (n, c) -> {
+                        synchronized (progressed) {
+                            progressed.add(n);
+                        }
+                    }), 1L);
+            assertEquals(progressed, singletonList("p/1"));
+            assertEquals(storage.getObject("d", "x/p/1"),
+                         "p/1".getBytes(UTF_8));
+            assertNull(storage.getObject("d", "x/p/2"));
+            assertNull(storage.getObject("d", "x/q/3"));
+        }
+    }
+
+    @Test
+    public void reusesConnections() throws IOException {
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", new byte[DRAIN_LIMIT], "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test", true);
+            client.authenticateUser(false);
+            for (int i = 0; i < 4; i++) {
+                assertEquals((int) client.readObject(
+                        "c", "o", null, null, client::getStatusCode), 200);
+            }
+            assertEquals((int) client.readObject(
+                    "c", "none", null, null, client::getStatusCode), 404);
+            assertEquals(client.getRequestCount(), 6L);
+            assertEquals(storage.getConnectionCount(), 1);
+        }
+    }
+
+    @Test
+    public void disconnectsTooMuchToDrain() throws IOException {
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", new byte[DRAIN_LIMIT * 16],
+                              "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test", true);
+            client.authenticateUser(false);
+            assertEquals((int) client.readObject(
+                    "c", "o", null, null, client::getStatusCode), 200);
+            assertEquals((int) client.peekObject(
+                    "c", "o", null, null, client::getStatusCode), 200);
+            assertEquals(storage.getConnectionCount(), 2);
+        }
+    }
+
+    @Test
+    public void countsConnections() throws IOException {
+        final NetTransport transport = new NetTransport();
+        try (Socket first = transport.getSocketFactory().createSocket();
+             Socket second = transport.getSocketFactory().createSocket()) {
+            assertEquals(transport.getConnectionCount(), 2L);
+        }
+        final StorageClientNet client = new StorageClientNet(
+                "https://localhost", "test", "test", transport);
+        assertEquals(client.getConnectionCount(), 2L);
+    }
+
+    @Test
+    public void resumesCompressedSegments() throws IOException {
+        final byte[] bytes = new byte[10000];
+        final Path path = Files.createTempFile(null, null);
+        final Path journal = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test")
+                    .compression(true).segmentSize(4096L);
+            client.authenticateUser(false);
+            try {
+                client.updateObjectSegmented(
+                        "c", "o", null, path, "s", journal, r -> {
+                            throw new StorageClientException("failed");
+                        });
+                fail("manifest put");
+            } catch (final StorageClientException sce) {
+                // expected
+            }
+            final int requests = storage.getRequests().size();
+            assertEquals((int) client.updateObjectSegmented(
+                    "c", "o", null, path, "s", journal,
+                    client::getStatusCode), 201);
+            for (final FakeStorage.Request request
+                 : storage.getRequests().subList(
+                         requests, storage.getRequests().size())) {
+                if ("PUT".equals(request.getMethod())
+                    && request.getPath().contains("/s/")) {
+                    fail("segment uploaded again; " + request);
+                }
+            }
+            assertEquals(storage.getRequests().get(
+                    storage.getRequests().size() - 1)
+                    .getHeader("Content-Encoding"), "identity");
+        } finally {
+            Files.delete(path);
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    @Test
+    public void resumesSegmentedFilesOfTree() throws IOException {
+        final Path directory = Files.createTempDirectory(null);
+        final Path path = directory.resolve("f");
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, new byte[10000]);
+            storage.putContainer("c");
+            storage.fault("PUT", "/c/f", 503);
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test").segmentSize(4096L);
+            client.authenticateUser(false);
+            assertEquals(client.updateObjects(
+                    directory, "c", n -> n, "s", pool, null).getFiles(), 1L);
+            final List<String> segments = new ArrayList<>();
+            for (final FakeStorage.Request request : storage.getRequests()) {
+                if ("PUT".equals(request.getMethod())
+                    && request.getPath().contains("/s/")) {
+                    segments.add(request.getPath());
+                }
+            }
+            assertEquals(segments.size(), 3, segments.toString());
+            assertNotNull(storage.getObject("c", "f"));
+        } finally {
+            pool.shutdown();
+            Files.delete(path);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void replaysRead() throws IOException {
+        final byte[] bytes = "replayed".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            storage.revokeToken();
+            assertEquals(client.readObject(
+                    "c", "o", null, null,
+                    r -> read(client.getEntityStream(r))), bytes);
+            assertEquals(authentications(storage), 2L);
+        }
+    }
+
+    @Test
+    public void replaysUpload() throws IOException {
+        final byte[] bytes = "replayed".getBytes(UTF_8);
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            storage.revokeToken();
+            try (FileChannel channel = FileChannel.open(path)) {
+                assertEquals((int) client.updateObject(
+                        "c", "o", null, null, channel, 0L, bytes.length,
+                        client::getStatusCode), 201);
+            }
+            assertEquals(storage.getObject("c", "o"), bytes);
+            assertEquals(authentications(storage), 2L);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void replaysCompressedUpload() throws IOException {
+        final byte[] bytes = new byte[10000];
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test").compression(true);
+            client.authenticateUser(false);
+            storage.revokeToken();
+            final Map<String, List<Object>> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", singletonList("text/plain"));
+            assertEquals((int) client.updateObject(
+                    "c", "o", null, headers, path, client::getStatusCode),
+                         201);
+            assertEquals(headers.keySet(), singleton("Content-Type"));
+            final FakeStorage.Request request = storage.getRequests().get(
+                    storage.getRequests().size() - 1);
+            assertEquals(request.getHeader("Content-Encoding"), "gzip");
+            assertEquals(read(new GZIPInputStream(new ByteArrayInputStream(
+                    storage.getObject("c", "o")))), bytes);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void readsCachedWithETag() throws IOException {
+        final byte[] bytes = "cached".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test")
+                    .objectCacheCapacity(1024L);
+            client.authenticateUser(false);
+            assertEquals(client.readObjectCached("c", "o", null, null), bytes);
+            assertEquals(client.readObjectCached("c", "o", null, null), bytes);
+            final FakeStorage.Request request = storage.getRequests().get(
+                    storage.getRequests().size() - 1);
+            assertNotNull(request.getHeader("If-None-Match"));
+        }
+    }
+
+    @Test
+    public void readsCachedWithLastModified() throws IOException {
+        final byte[] bytes = "cached".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test") {
+                @Override
+                public String getHeaderValue(final URLConnection response,
+                                             final String name) {
+                    return "ETag".equals(name)
+                           ? null : super.getHeaderValue(response, name);
+                }
+            }.objectCacheCapacity(1024L);
+            client.authenticateUser(false);
+            assertEquals(client.readObjectCached("c", "o", null, null), bytes);
+            assertEquals(client.readObjectCached("c", "o", null, null), bytes);
+            final FakeStorage.Request request = storage.getRequests().get(
+                    storage.getRequests().size() - 1);
+            assertNull(request.getHeader("If-None-Match"));
+            assertNotNull(request.getHeader("If-Modified-Since"));
+        }
+    }
+
+    @Test
+    public void readsUncachedWithoutCapacity() throws IOException {
+        final byte[] bytes = "uncached".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test")
+                    .objectCacheCapacity(0L);
+            client.authenticateUser(false);
+            for (int i = 0; i < 2; i++) {
+                assertEquals(client.readObjectCached("c", "o", null, null),
+                             bytes);
+                final FakeStorage.Request request = storage.getRequests().get(
+                        storage.getRequests().size() - 1);
+                assertNull(request.getHeader("If-None-Match"));
+                assertNull(request.getHeader("If-Modified-Since"));
+            }
+        }
+    }
+
+    @Test
+    public void readsUncachedWithRange() throws IOException {
+        final byte[] bytes = "uncached".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test")
+                    .objectCacheCapacity(1024L);
+            client.authenticateUser(false);
+            final Map<String, List<Object>> headers = new LinkedHashMap<>();
+            headers.put("Range", singletonList("bytes=0-1"));
+            assertEquals(client.readObjectCached("c", "o", null, headers),
+                         "un".getBytes(UTF_8));
+            assertEquals(client.readObjectCached("c", "o", null, null), bytes);
+            final FakeStorage.Request request = storage.getRequests().get(
+                    storage.getRequests().size() - 1);
+            assertNull(request.getHeader("If-None-Match"));
+            assertEquals(client.readObjectCached("c", "o", null, null), bytes);
+        }
+    }
+
+    @Test
+    public void readsFlatContainerObjectNames() throws IOException {
+        final List<String> names = new ArrayList<>();
+        try (FakeStorage storage = new FakeStorage()) {
+            for (int i = 0; i < 300; i++) {
+                final String name = String.format("%04x", i * 217);
+                names.add(name);
+                storage.putObject("c", name, new byte[0], "text/plain");
+            }
+            names.sort(null);
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test").listLimit(10);
+            client.authenticateUser(false);
+            final ForkJoinPool pool = new ForkJoinPool(8);
+            try {
+                assertEquals(client.readContainerObjectNames(
+                        "c", null, "/", null,
+                        r -> new InputStreamReader(
+                                client.getEntityStream(r), UTF_8),
+                        pool), names);
+                final List<String> expected = new ArrayList<>();
+                for (final String name : names) {
+                    if (name.startsWith("0")) {
+                        expected.add(name);
+                    }
+                }
+                assertEquals(client.readContainerObjectNames(
+                        "c", asList("0", "01", "00"), "/", null,
+                        r -> new InputStreamReader(
+                                client.getEntityStream(r), UTF_8),
+                        pool), expected);
+            } finally {
+                pool.shutdown();
+            }
+            assertTrue(storage.getRequests().stream().anyMatch(
+                    r -> r.getQuery() != null
+                         && r.getQuery().contains("end_marker=")));
+        }
+    }
+
+    @Test
+    public void readsAsynchronouslyOnItsOwnThreads()
+            throws IOException, InterruptedException, ExecutionException,
+                   TimeoutException {
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", new byte[16], "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            final Thread thread = client.readObjectAsync(
+                    "c", "o", null, null, r -> {
+                        assertEquals(client.getStatusCode(r), 200);
+                        return Thread.currentThread();
+                    }).get(10L, SECONDS);
+            assertTrue(thread.getName().startsWith("storage-client-"));
+            assertTrue(thread.isDaemon());
+        }
+    }
+
+    @Test
+    public void deleteObjects() throws IOException {
+        try (FakeStorage storage = new FakeStorage()) {
+            for (int i = 0; i < 5; i++) {
+                storage.putObject("c", "o" + i, new byte[1], "text/plain");
+            }
+            storage.fault("DELETE", "/c/o2", 503);
+            storage.fault("DELETE", "/c", 409);
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            final DeleteSummary summary
+                    = client.deleteObjects("c", null, 0, true);
+            assertEquals(summary.getDeleted(), 5L);
+            assertEquals(summary.getMissing(), 0L);
+            assertTrue(summary.isContainerDeleted());
+            assertFalse(storage.getContainerNames().contains("c"));
+        }
+    }
+
+    @Test
+    public void readsRanged()
+            throws IOException, NoSuchAlgorithmException {
+        final byte[] bytes = new byte[10000];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        final String etag = String.format("%032x", new BigInteger(
+                1, MessageDigest.getInstance("MD5").digest(bytes)));
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "application/octet-stream");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test").partSize(4096L);
+            client.authenticateUser(false);
+            client.readObjectRanged("c", "o", null, path);
+            assertEquals(Files.readAllBytes(path), bytes);
+            final Set<String> ranges = new HashSet<>();
+            for (final FakeStorage.Request request : storage.getRequests()) {
+                if (request.getHeader("Range") != null) {
+                    assertEquals(request.getHeader("If-Match"), etag);
+                    ranges.add(request.getHeader("Range"));
+                }
+            }
+            assertEquals(ranges, new HashSet<>(asList(
+                         "bytes=0-4095", "bytes=4096-8191",
+                         "bytes=8192-9999")));
+            storage.setCorrupting(true);
+            try {
+                client.readObjectRanged("c", "o", null, path);
+                fail("a corrupted object has been accepted");
+            } catch (final StorageClientException sce) {
+                // expected
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void failsWithoutContentLength() throws IOException {
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", new byte[10], "text/plain");
+            final StorageClientNet client = new StorageClientNet(
+                    storage.getAuthUrl(), "test", "test") {
+                @Override
+                public String getHeaderValue(final URLConnection response,
+                                             final String name) {
+                    return "Content-Length".equals(name)
+                           ? null : super.getHeaderValue(response, name);
+                }
+            };
+            client.authenticateUser(false);
+            final Path path = Files.createTempFile(null, null);
+            try {
+                client.readObjectRanged("c", "o", null, path);
+                fail("a missing length has been accepted");
+            } catch (final StorageClientException sce) {
+                // expected
+            } finally {
+                Files.delete(path);
+            }
+            try {
+                client.peekObjectCached("c", "o");
+                fail("a missing length has been accepted");
+            } catch (final StorageClientException sce) {
+                // expected
+            }
+        }
+    }
+
+    private static byte[] read(final InputStream stream) {
+        try (InputStream input = stream) {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int r; (r = input.read(buffer)) != -1;) {
+                output.write(buffer, 0, r);
+            }
+            return output.toByteArray();
+        } catch (final IOException ioe) {
+            throw new StorageClientException(ioe);
+        }
+    }
+
+    private static long authentications(final FakeStorage storage) {
+        return storage.getRequests().stream()
+                .filter(r -> "/auth".equals(r.getPath())).count();
+    }
 }
@@ -15,7 +15,34 @@
  */
 package com.github.jinahya.kt.ucloud.storage.client.ws.rs;
 
+import com.github.jinahya.kt.ucloud.storage.client.FakeStorage;
 import com.github.jinahya.kt.ucloud.storage.client.StorageClientTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static java.util.Collections.singletonList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.zip.GZIPInputStream;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import org.testng.annotations.Test;
 
 /**
  *
@@ -27,4 +54,175 @@ public class StorageClientWsRsTest
     public StorageClientWsRsTest() {
         super(StorageClientWsRs.class);
     }
+
+    @Test
+    public void sharedClient() {
+        final Client shared = ClientBuilder.newClient();
+        final StorageClientWsRs client
+                = new StorageClientWsRs("test", "test", "test", shared);
+        assertSame(client.getClient(), shared);
+        client.release(shared);
+        shared.target("http://localhost"); // still open
+        client.close();
+        assertNull(client.getSharedClient());
+        try {
+            shared.target("http://localhost");
+            fail("shared client not closed");
+        } catch (final IllegalStateException ise) {
+            // expected
+        }
+    }
+
+    @Test
+    public void copyObject() throws IOException {
+        final byte[] bytes = "copied".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("s", "a b", bytes, "text/x-test");
+            storage.putContainer("d");
+            try (StorageClientWsRs client = new StorageClientWsRs(
+                    storage.getAuthUrl(), "test", "test")) {
+                client.authenticateUser(false);
+                assertEquals((int) client.copyObject(
+                        "s", "a b", "d", "o", (Map<String, List<Object>>) null,
+                        client::getStatusCode), 201);
+                assertEquals(storage.getObject("d", "o"), bytes);
+                assertEquals(storage.getContentType("d", "o"), "text/x-test");
+                final Map<String, List<Object>> headers = new HashMap<>();
+                headers.put("content-type", singletonList("text/x-other"));
+                assertEquals((int) client.copyObject(
+                        "s", "a b", "d", "p", headers, client::getStatusCode),
+                             201);
+                assertEquals(storage.getContentType("d", "p"),
+                             "text/x-other");
+            }
+        }
+    }
+
+    @Test
+    public void updateObjectCompressed() throws IOException {
+        final byte[] bytes = new byte[100000];
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            try (StorageClientWsRs client = new StorageClientWsRs(
+                    storage.getAuthUrl(), "test", "test")
+                    .uploadVerification(true).compression(true)) {
+                client.authenticateUser(false);
+                assertEquals((int) client.updateObject(
+                        "c", "o", null, null, path, client::getStatusCode),
+                             201);
+            }
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (InputStream stream = new GZIPInputStream(
+                    new ByteArrayInputStream(storage.getObject("c", "o")))) {
+                final byte[] buffer = new byte[8192];
+                for (int r; (r = stream.read(buffer)) != -1;) {
+                    output.write(buffer, 0, r);
+                }
+            }
+            assertEquals(output.toByteArray(), bytes);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void updateObjectSegmented() throws IOException {
+        final String objectName = "a b/%?\ud55c";
+        final byte[] bytes = new byte[10000];
+        ThreadLocalRandom.current().nextBytes(bytes);
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            try (StorageClientWsRs client = new StorageClientWsRs(
+                    storage.getAuthUrl(), "test", "test").segmentSize(4096L)) {
+                client.authenticateUser(false);
+                assertEquals((int) client.updateObjectSegmented(
+                        "c", objectName, null, path, "s 1",
+                        client::getStatusCode), 201);
+                final String manifest = storage.getRequests().get(
+                        storage.getRequests().size() - 1)
+                        .getHeader("X-Object-Manifest");
+                assertTrue(manifest.startsWith(
+                        "s%201/a%20b/%25%3F%ED%95%9C/"), manifest);
+                assertEquals(client.readObject(
+                        "c", objectName, (Map<String, List<Object>>) null,
+                        null, r -> r.readEntity(byte[].class)), bytes);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void replaysRead() throws IOException, InterruptedException,
+                                     ExecutionException, TimeoutException {
+        final byte[] bytes = "replayed".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            try (StorageClientWsRs client = new StorageClientWsRs(
+                    storage.getAuthUrl(), "test", "test")) {
+                client.authenticateUser(false);
+                storage.revokeToken();
+                assertEquals(client.readObject(
+                        "c", "o", (Map<String, List<Object>>) null, null,
+                        r -> r.readEntity(byte[].class)), bytes);
+                storage.revokeToken();
+                assertEquals(client.readObjectAsync(
+                        "c", "o", (Map<String, List<Object>>) null, null,
+                        r -> r.readEntity(byte[].class)).get(10L, SECONDS),
+                             bytes);
+            }
+            assertEquals(storage.getRequests().stream()
+                    .filter(r -> "/auth".equals(r.getPath())).count(), 3L);
+        }
+    }
+
+    @Test
+    public void replaysUpload() throws IOException {
+        final byte[] bytes = "replayed".getBytes(UTF_8);
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            try (StorageClientWsRs client = new StorageClientWsRs(
+                    storage.getAuthUrl(), "test", "test");
+                 FileChannel channel = FileChannel.open(path)) {
+                client.authenticateUser(false);
+                storage.revokeToken();
+                assertEquals((int) client.updateObject(
+                        "c", "o", null, null, channel, 0L, bytes.length,
+                        client::getStatusCode), 201);
+            }
+            assertEquals(storage.getObject("c", "o"), bytes);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void readsAsynchronouslyWithoutExecutor()
+            throws IOException, InterruptedException, ExecutionException,
+                   TimeoutException {
+        final byte[] bytes = "async".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            try (StorageClientWsRs client = new StorageClientWsRs(
+                    storage.getAuthUrl(), "test", "test")) {
+                client.authenticateUser(false);
+                client.executor(r -> {
+                    throw new RejectedExecutionException("not expected");
+                });
+                assertEquals(client.readObjectAsync(
+                        "c", "o", (Map<String, List<Object>>) null, null,
+                        r -> r.readEntity(byte[].class)).get(10L, SECONDS),
+                             bytes);
+                assertEquals((int) client.readObjectAsync(
+                        "c", "none", (Map<String, List<Object>>) null, null,
+                        client::getStatusCode).get(10L, SECONDS), 404);
+            }
+        }
+    }
 }
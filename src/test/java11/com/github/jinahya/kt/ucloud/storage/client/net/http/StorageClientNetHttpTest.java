@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 Jin Kwon &lt;onacit_at_gmail.com&gt;.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jinahya.kt.ucloud.storage.client.net.http;
+
+import com.github.jinahya.kt.ucloud.storage.client.FakeStorage;
+import com.github.jinahya.kt.ucloud.storage.client.StorageClientException;
+import com.github.jinahya.kt.ucloud.storage.client.StorageClientTest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import java.util.zip.GZIPInputStream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+import org.testng.annotations.Test;
+
+/**
+ *
+ * @author Jin Kwon &lt;onacit_at_gmail.com&gt;
+ */
+public class StorageClientNetHttpTest
+        extends StorageClientTest<StorageClientNetHttp> {
+
+    public StorageClientNetHttpTest() {
+        super(StorageClientNetHttp.class);
+    }
+
+    @Test
+    public void copyObject() throws IOException {
+        final byte[] bytes = "copied".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("s", "a/b c", bytes, "text/x-test");
+            storage.putContainer("d");
+            final StorageClientNetHttp client = new StorageClientNetHttp(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            assertEquals((int) client.copyObject(
+                    "s", "a/b c", "d", "o", null, client::getStatusCode),
+                         201);
+            assertEquals(storage.getObject("d", "o"), bytes);
+            assertEquals(storage.getContentType("d", "o"), "text/x-test");
+            assertEquals(storage.getRequests().get(
+                    storage.getRequests().size() - 1)
+                    .getHeader("X-Copy-From"), "/s/a/b%20c");
+        }
+    }
+
+    @Test
+    public void updateObjectWithPath() throws IOException {
+        final byte[] bytes = "compressible ".repeat(8192).getBytes(UTF_8);
+        final Path path = Files.createTempFile(null, null);
+        try (FakeStorage storage = new FakeStorage()) {
+            Files.write(path, bytes);
+            storage.putContainer("c");
+            final StorageClientNetHttp client = new StorageClientNetHttp(
+                    storage.getAuthUrl(), "test", "test")
+                    .uploadVerification(true).compression(true);
+            client.authenticateUser(false);
+            assertEquals((int) client.updateObject(
+                    "c", "o", null, null, path, client::getStatusCode), 201);
+            assertEquals(storage.getRequests().get(
+                    storage.getRequests().size() - 1)
+                    .getHeader("Content-Encoding"), "gzip");
+            try (InputStream stream = new GZIPInputStream(
+                    new ByteArrayInputStream(storage.getObject("c", "o")))) {
+                assertEquals(stream.readAllBytes(), bytes);
+            }
+            storage.setCorrupting(true);
+            try {
+                client.updateObject("c", "o", null, null, path,
+                                    client::getStatusCode);
+                fail("etag mismatch not detected");
+            } catch (final StorageClientException sce) {
+                // expected
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void readsAsynchronouslyWithoutExecutor()
+            throws IOException, InterruptedException, ExecutionException,
+                   TimeoutException {
+        final byte[] bytes = "async".getBytes(UTF_8);
+        try (FakeStorage storage = new FakeStorage()) {
+            storage.putObject("c", "o", bytes, "text/plain");
+            final StorageClientNetHttp client = new StorageClientNetHttp(
+                    storage.getAuthUrl(), "test", "test");
+            client.authenticateUser(false);
+            client.executor(r -> {
+                throw new RejectedExecutionException("not expected");
+            });
+            assertEquals(client.readObjectAsync("c", "o", null, null, r -> {
+                try {
+                    return r.body().readAllBytes();
+                } catch (final IOException ioe) {
+                    throw new UncheckedIOException(ioe);
+                }
+            }).get(10L, SECONDS), bytes);
+            assertEquals((int) client.readObjectAsync(
+                    "c", "none", null, null, client::getStatusCode)
+                    .get(10L, SECONDS), 404);
+        }
+    }
+}